@@ -0,0 +1,40 @@
+package com.skillsphere.backend.catalog;
+
+import com.skillsphere.backend.entity.SkillNodeEntity;
+import com.skillsphere.backend.entity.SkillNodeEntity.NodeType;
+import lombok.Getter;
+
+/**
+ * Immutable copy of a skill node, safe to share between requests
+ */
+@Getter
+public final class SkillNodeSnapshot {
+
+    private final Long nodeId;
+    private final Long treeId;
+    private final String title;
+    private final String description;
+    private final Integer orderIndex;
+    private final Long parentNodeId;
+    private final Integer xpReward;
+    private final Integer estimatedMinutes;
+    private final NodeType nodeType;
+    private final boolean locked;
+
+    private SkillNodeSnapshot(SkillNodeEntity entity) {
+        this.nodeId = entity.getNodeId();
+        this.treeId = entity.getTreeId();
+        this.title = entity.getTitle();
+        this.description = entity.getDescription();
+        this.orderIndex = entity.getOrderIndex();
+        this.parentNodeId = entity.getParentNodeId();
+        this.xpReward = entity.getXpReward();
+        this.estimatedMinutes = entity.getEstimatedMinutes();
+        this.nodeType = entity.getNodeType();
+        this.locked = entity.getIsLocked() != null && entity.getIsLocked();
+    }
+
+    public static SkillNodeSnapshot of(SkillNodeEntity entity) {
+        return new SkillNodeSnapshot(entity);
+    }
+}
@@ -0,0 +1,206 @@
+package com.skillsphere.backend.catalog;
+
+import com.skillsphere.backend.cache.BoundedCache;
+import com.skillsphere.backend.cache.CacheMetrics;
+import com.skillsphere.backend.entity.SkillNodeEntity;
+import com.skillsphere.backend.entity.SkillTreeEntity;
+import com.skillsphere.backend.repo.SkillNodeRepo;
+import com.skillsphere.backend.repo.SkillTreeRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache of immutable skill tree snapshots, keyed by tree id.
+ *
+ * Trees and nodes are written rarely (seed scripts, admin edits), so detail,
+ * catalog and completion requests read them from here instead of Postgres.
+ * Entries are dropped after a commit that touches a tree or node, and also
+ * expire after a TTL to pick up edits made directly in the database.
+ */
+@Component
+public class SkillTreeCatalogCache {
+
+    private static final Logger logger = LogManager.getLogger(SkillTreeCatalogCache.class);
+
+    private static final String ALL_TREES = "all";
+
+    private final SkillTreeRepo skillTreeRepo;
+    private final SkillNodeRepo skillNodeRepo;
+
+    private final BoundedCache<Long, SkillTreeSnapshot> trees;
+    private final BoundedCache<Long, Long> treeIdByNodeId;
+    private final BoundedCache<String, List<Long>> treeIds;
+
+    // Bumped on every invalidation so loads that raced with a write are not stored
+    private final AtomicLong version = new AtomicLong();
+
+    public SkillTreeCatalogCache(
+            SkillTreeRepo skillTreeRepo,
+            SkillNodeRepo skillNodeRepo,
+            MeterRegistry meterRegistry,
+            @Value("${skillsphere.catalog-cache.max-trees:500}") int maxTrees,
+            @Value("${skillsphere.catalog-cache.ttl-minutes:30}") long ttlMinutes
+    ) {
+        this.skillTreeRepo = skillTreeRepo;
+        this.skillNodeRepo = skillNodeRepo;
+
+        Duration ttl = Duration.ofMinutes(ttlMinutes);
+        this.trees = new BoundedCache<>(maxTrees, ttl);
+        this.treeIdByNodeId = new BoundedCache<>(maxTrees * 100, ttl);
+        this.treeIds = new BoundedCache<>(1, ttl);
+
+        CacheMetrics.bind(meterRegistry, "skillTreeCatalog", trees);
+    }
+
+    /**
+     * Get a tree snapshot, loading it on a miss
+     */
+    public Optional<SkillTreeSnapshot> getTree(Long treeId) {
+        SkillTreeSnapshot snapshot = trees.getIfPresent(treeId);
+        if (snapshot == null) {
+            snapshot = loadTrees(List.of(treeId)).get(treeId);
+        }
+        return Optional.ofNullable(snapshot);
+    }
+
+    /**
+     * Get several tree snapshots at once; misses are loaded in one batch.
+     * Result keeps the order of the requested ids and skips unknown trees.
+     */
+    public Map<Long, SkillTreeSnapshot> getTrees(Collection<Long> requestedIds) {
+        Map<Long, SkillTreeSnapshot> found = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+
+        for (Long treeId : requestedIds) {
+            SkillTreeSnapshot snapshot = trees.getIfPresent(treeId);
+            if (snapshot != null) {
+                found.put(treeId, snapshot);
+            } else {
+                missing.add(treeId);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        Map<Long, SkillTreeSnapshot> loaded = loadTrees(missing);
+        Map<Long, SkillTreeSnapshot> result = new LinkedHashMap<>();
+        for (Long treeId : requestedIds) {
+            SkillTreeSnapshot snapshot = found.containsKey(treeId) ? found.get(treeId) : loaded.get(treeId);
+            if (snapshot != null) {
+                result.put(treeId, snapshot);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get every tree in the catalog
+     */
+    public List<SkillTreeSnapshot> getAllTrees() {
+        List<Long> ids = treeIds.getIfPresent(ALL_TREES);
+        if (ids != null) {
+            return new ArrayList<>(getTrees(ids).values());
+        }
+
+        long expectedVersion = version.get();
+        List<SkillTreeEntity> entities = skillTreeRepo.findAll();
+        Map<Long, SkillTreeSnapshot> loaded = buildSnapshots(entities, expectedVersion);
+
+        if (version.get() == expectedVersion) {
+            treeIds.put(ALL_TREES, List.copyOf(loaded.keySet()));
+        }
+        return new ArrayList<>(loaded.values());
+    }
+
+    /**
+     * Get a node snapshot by id
+     */
+    public Optional<SkillNodeSnapshot> getNode(Long nodeId) {
+        Long treeId = treeIdByNodeId.getIfPresent(nodeId);
+        if (treeId != null) {
+            SkillNodeSnapshot node = getTree(treeId).map(tree -> tree.findNode(nodeId)).orElse(null);
+            if (node != null) {
+                return Optional.of(node);
+            }
+            // Node moved or was removed since the mapping was cached
+            treeIdByNodeId.invalidate(nodeId);
+        }
+
+        return skillNodeRepo.findTreeIdByNodeId(nodeId)
+                .flatMap(this::getTree)
+                .map(tree -> tree.findNode(nodeId));
+    }
+
+    /**
+     * Drop a tree snapshot (null drops everything)
+     */
+    public void invalidate(Long treeId) {
+        version.incrementAndGet();
+        if (treeId == null) {
+            trees.invalidateAll();
+            treeIdByNodeId.invalidateAll();
+        } else {
+            trees.invalidate(treeId);
+        }
+        treeIds.invalidateAll();
+        logger.debug("Skill tree catalog invalidated for tree: {}", treeId);
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(SkillTreeCatalogChangedEvent event) {
+        invalidate(event.treeId());
+    }
+
+    private Map<Long, SkillTreeSnapshot> loadTrees(Collection<Long> ids) {
+        long expectedVersion = version.get();
+        return buildSnapshots(skillTreeRepo.findAllById(ids), expectedVersion);
+    }
+
+    private Map<Long, SkillTreeSnapshot> buildSnapshots(List<SkillTreeEntity> entities, long expectedVersion) {
+        if (entities.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Long> ids = entities.stream().map(SkillTreeEntity::getTreeId).toList();
+        Map<Long, List<SkillNodeEntity>> nodesByTree = skillNodeRepo.findByTreeIdIn(ids).stream()
+                .collect(Collectors.groupingBy(SkillNodeEntity::getTreeId));
+
+        boolean current = version.get() == expectedVersion;
+        Map<Long, SkillTreeSnapshot> snapshots = new LinkedHashMap<>();
+        for (SkillTreeEntity entity : entities) {
+            SkillTreeSnapshot snapshot = SkillTreeSnapshot.of(
+                    entity, nodesByTree.getOrDefault(entity.getTreeId(), List.of()));
+            snapshots.put(entity.getTreeId(), snapshot);
+
+            if (current) {
+                trees.put(entity.getTreeId(), snapshot);
+                for (SkillNodeSnapshot node : snapshot.getNodes()) {
+                    treeIdByNodeId.put(node.getNodeId(), entity.getTreeId());
+                }
+            }
+        }
+        logger.debug("Loaded {} skill tree snapshot(s) into catalog cache", snapshots.size());
+        return snapshots;
+    }
+}
@@ -0,0 +1,8 @@
+package com.skillsphere.backend.catalog;
+
+/**
+ * Published when a skill tree or one of its nodes is written.
+ * A null tree id means the affected tree is unknown and everything should be dropped.
+ */
+public record SkillTreeCatalogChangedEvent(Long treeId) {
+}
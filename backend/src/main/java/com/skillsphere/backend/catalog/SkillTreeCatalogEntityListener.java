@@ -0,0 +1,42 @@
+package com.skillsphere.backend.catalog;
+
+import com.skillsphere.backend.entity.SkillNodeEntity;
+import com.skillsphere.backend.entity.SkillTreeEntity;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener on skill trees and nodes that tells the catalog cache to drop stale snapshots.
+ * Only publishes an event so it does not depend on repositories (Hibernate builds it early).
+ */
+@Component
+@RequiredArgsConstructor
+public class SkillTreeCatalogEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Object entity) {
+        eventPublisher.publishEvent(new SkillTreeCatalogChangedEvent(treeIdOf(entity)));
+    }
+
+    private Long treeIdOf(Object entity) {
+        if (entity instanceof SkillTreeEntity tree) {
+            return tree.getTreeId();
+        }
+        if (entity instanceof SkillNodeEntity node) {
+            // tree_id is read-only on the node; the association carries it on insert
+            if (node.getSkillTree() != null) {
+                return node.getSkillTree().getTreeId();
+            }
+            return node.getTreeId();
+        }
+        return null;
+    }
+}
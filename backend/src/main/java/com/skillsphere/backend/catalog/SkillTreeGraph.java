@@ -0,0 +1,200 @@
+package com.skillsphere.backend.catalog;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prerequisite graph of a skill tree, compiled into compressed sparse row arrays.
+ *
+ * Nodes are addressed by their position in {@link SkillTreeSnapshot#getNodes()}.
+ * A tree whose nodes use parent_node_id is treated as a DAG (parent -> child);
+ * a tree without any parent links falls back to linear order, where each node
+ * depends on the node at orderIndex - 1.
+ *
+ * Lock rule: a node with prerequisites is locked until all of them are completed
+ * (the is_locked flag only means "gated"); a node without prerequisites is locked
+ * only when its is_locked flag is set.
+ */
+public final class SkillTreeGraph {
+
+    private static final int[] NONE = new int[0];
+
+    private final int size;
+
+    // prerequisites of node i are prereqIndex[prereqStart[i] .. prereqStart[i + 1])
+    private final int[] prereqStart;
+    private final int[] prereqIndex;
+
+    // nodes that list node i as a prerequisite
+    private final int[] dependentStart;
+    private final int[] dependentIndex;
+
+    // nodes without prerequisites that stay locked (is_locked flag)
+    private final BitSet lockedRoots;
+
+    private SkillTreeGraph(int size, int[] prereqStart, int[] prereqIndex,
+                           int[] dependentStart, int[] dependentIndex, BitSet lockedRoots) {
+        this.size = size;
+        this.prereqStart = prereqStart;
+        this.prereqIndex = prereqIndex;
+        this.dependentStart = dependentStart;
+        this.dependentIndex = dependentIndex;
+        this.lockedRoots = lockedRoots;
+    }
+
+    /**
+     * Compile the graph for nodes sorted by order index
+     */
+    public static SkillTreeGraph compile(List<SkillNodeSnapshot> nodes) {
+        int n = nodes.size();
+
+        Map<Long, Integer> indexByNodeId = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            indexByNodeId.put(nodes.get(i).getNodeId(), i);
+        }
+
+        boolean hasParentLinks = nodes.stream()
+                .anyMatch(node -> node.getParentNodeId() != null && indexByNodeId.containsKey(node.getParentNodeId()));
+
+        // One edge list entry per (prerequisite, node) pair
+        int[] edgeFrom = new int[n];
+        int[] edgeTo = new int[n];
+        int edges = 0;
+
+        if (hasParentLinks) {
+            for (int i = 0; i < n; i++) {
+                Integer parent = indexByNodeId.get(nodes.get(i).getParentNodeId());
+                if (parent != null && parent != i) {
+                    edgeFrom[edges] = parent;
+                    edgeTo[edges] = i;
+                    edges++;
+                }
+            }
+        } else {
+            // First node seen for each order index acts as the predecessor of the next index
+            Map<Integer, Integer> firstByOrderIndex = new HashMap<>(n * 2);
+            for (int i = 0; i < n; i++) {
+                firstByOrderIndex.putIfAbsent(nodes.get(i).getOrderIndex(), i);
+            }
+            for (int i = 0; i < n; i++) {
+                Integer orderIndex = nodes.get(i).getOrderIndex();
+                if (orderIndex == null || orderIndex == 0) {
+                    continue;
+                }
+                Integer previous = firstByOrderIndex.get(orderIndex - 1);
+                if (previous != null) {
+                    edgeFrom[edges] = previous;
+                    edgeTo[edges] = i;
+                    edges++;
+                }
+            }
+        }
+
+        BitSet lockedRoots = new BitSet(n);
+        for (int i = 0; i < n; i++) {
+            SkillNodeSnapshot node = nodes.get(i);
+            boolean firstInLinearOrder = !hasParentLinks && Integer.valueOf(0).equals(node.getOrderIndex());
+            if (node.isLocked() && !firstInLinearOrder) {
+                lockedRoots.set(i);
+            }
+        }
+
+        int[] prereqStart = new int[n + 1];
+        int[] dependentStart = new int[n + 1];
+        for (int e = 0; e < edges; e++) {
+            prereqStart[edgeTo[e] + 1]++;
+            dependentStart[edgeFrom[e] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            prereqStart[i + 1] += prereqStart[i];
+            dependentStart[i + 1] += dependentStart[i];
+        }
+
+        int[] prereqIndex = new int[edges];
+        int[] dependentIndex = new int[edges];
+        int[] prereqFill = Arrays.copyOf(prereqStart, n);
+        int[] dependentFill = Arrays.copyOf(dependentStart, n);
+        for (int e = 0; e < edges; e++) {
+            prereqIndex[prereqFill[edgeTo[e]]++] = edgeFrom[e];
+            dependentIndex[dependentFill[edgeFrom[e]]++] = edgeTo[e];
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (prereqStart[i] != prereqStart[i + 1]) {
+                lockedRoots.clear(i);
+            }
+        }
+
+        return new SkillTreeGraph(n, prereqStart, prereqIndex, dependentStart, dependentIndex, lockedRoots);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Indexes of the direct prerequisites of a node
+     */
+    public int[] prerequisitesOf(int index) {
+        int from = prereqStart[index];
+        int to = prereqStart[index + 1];
+        return from == to ? NONE : Arrays.copyOfRange(prereqIndex, from, to);
+    }
+
+    /**
+     * Whether a node is locked given the set of completed node indexes
+     */
+    public boolean isLocked(int index, BitSet completed) {
+        int from = prereqStart[index];
+        int to = prereqStart[index + 1];
+        if (from == to) {
+            return lockedRoots.get(index);
+        }
+        for (int k = from; k < to; k++) {
+            if (!completed.get(prereqIndex[k])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * All locked node indexes for a user, in O(nodes + edges)
+     */
+    public BitSet lockedNodes(BitSet completed) {
+        BitSet locked = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            if (isLocked(i, completed)) {
+                locked.set(i);
+            }
+        }
+        return locked;
+    }
+
+    /**
+     * Nodes that became unlocked because {@code completedIndex} was just completed.
+     * {@code completed} must already include {@code completedIndex}; only the
+     * dependents of that node are examined.
+     */
+    public int[] newlyUnlocked(int completedIndex, BitSet completed) {
+        int from = dependentStart[completedIndex];
+        int to = dependentStart[completedIndex + 1];
+        if (from == to) {
+            return NONE;
+        }
+
+        int[] unlocked = new int[to - from];
+        int count = 0;
+        for (int k = from; k < to; k++) {
+            int dependent = dependentIndex[k];
+            // The dependent was locked before (this prerequisite was missing)
+            if (!completed.get(dependent) && !isLocked(dependent, completed)) {
+                unlocked[count++] = dependent;
+            }
+        }
+        return Arrays.copyOf(unlocked, count);
+    }
+}
@@ -0,0 +1,107 @@
+package com.skillsphere.backend.catalog;
+
+import com.skillsphere.backend.entity.SkillNodeEntity;
+import com.skillsphere.backend.entity.SkillTreeEntity;
+import com.skillsphere.backend.entity.SkillTreeEntity.DifficultyLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable copy of a skill tree and its nodes.
+ * Nodes are sorted by order index; total XP and the prerequisite graph
+ * are computed once on build.
+ */
+@Getter
+public final class SkillTreeSnapshot {
+
+    private static final Comparator<SkillNodeSnapshot> NODE_ORDER = Comparator
+            .comparing(SkillNodeSnapshot::getOrderIndex, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(SkillNodeSnapshot::getNodeId);
+
+    private final Long treeId;
+    private final String title;
+    private final String description;
+    private final String category;
+    private final String thumbnailUrl;
+    private final Integer totalNodes;      // Value of the total_nodes column
+    private final Integer estimatedHours;
+    private final DifficultyLevel difficulty;
+    private final List<SkillNodeSnapshot> nodes;
+    private final int totalXp;
+    private final SkillTreeGraph graph;
+    private final long nodeSignature;      // Changes whenever node ids or their order change
+
+    @Getter(lombok.AccessLevel.NONE)
+    private final Map<Long, Integer> indexByNodeId;
+
+    private SkillTreeSnapshot(SkillTreeEntity tree, SkillNodeSnapshot[] sortedNodes) {
+        this.treeId = tree.getTreeId();
+        this.title = tree.getTitle();
+        this.description = tree.getDescription();
+        this.category = tree.getCategory();
+        this.thumbnailUrl = tree.getThumbnailUrl();
+        this.totalNodes = tree.getTotalNodes();
+        this.estimatedHours = tree.getEstimatedHours();
+        this.difficulty = tree.getDifficulty();
+        this.nodes = Collections.unmodifiableList(Arrays.asList(sortedNodes));
+
+        Map<Long, Integer> index = new HashMap<>(sortedNodes.length * 2);
+        int xp = 0;
+        long signature = 17;
+        for (int i = 0; i < sortedNodes.length; i++) {
+            index.put(sortedNodes[i].getNodeId(), i);
+            xp += sortedNodes[i].getXpReward() != null ? sortedNodes[i].getXpReward() : 0;
+            signature = 31 * signature + sortedNodes[i].getNodeId();
+        }
+        this.indexByNodeId = index;
+        this.totalXp = xp;
+        this.nodeSignature = signature;
+        this.graph = SkillTreeGraph.compile(this.nodes);
+    }
+
+    public static SkillTreeSnapshot of(SkillTreeEntity tree, List<SkillNodeEntity> nodeEntities) {
+        SkillNodeSnapshot[] sorted = nodeEntities.stream()
+                .map(SkillNodeSnapshot::of)
+                .sorted(NODE_ORDER)
+                .toArray(SkillNodeSnapshot[]::new);
+        return new SkillTreeSnapshot(tree, sorted);
+    }
+
+    /**
+     * Number of nodes actually present in the tree
+     */
+    public int nodeCount() {
+        return nodes.size();
+    }
+
+    /**
+     * Position of a node in {@link #getNodes()}, or -1 if it is not part of this tree
+     */
+    public int indexOf(Long nodeId) {
+        Integer index = indexByNodeId.get(nodeId);
+        return index != null ? index : -1;
+    }
+
+    public SkillNodeSnapshot findNode(Long nodeId) {
+        int index = indexOf(nodeId);
+        return index >= 0 ? nodes.get(index) : null;
+    }
+
+    /**
+     * Node ids for a list of node indexes
+     */
+    public List<Long> nodeIds(int[] indexes) {
+        List<Long> ids = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            ids.add(nodes.get(index).getNodeId());
+        }
+        return ids;
+    }
+}
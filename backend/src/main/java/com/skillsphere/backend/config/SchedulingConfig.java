@@ -0,0 +1,12 @@
+package com.skillsphere.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (cache write-back, reconciliation)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -62,6 +62,8 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/api/study-rooms").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/study-rooms/{id}").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/study-rooms/*/messages").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/study-rooms/*/messages/page").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/study-rooms/*/messages/poll").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/study-rooms/upcoming").permitAll()
                 .requestMatchers("/ws/**").permitAll()
 
@@ -0,0 +1,90 @@
+package com.skillsphere.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Outbound channel guard that drops broker messages for a session which
+ * already has too many waiting on the outbound executor.
+ *
+ * Without it one slow client stuck behind the send time limit can fill the
+ * bounded outbound queue with its own backlog and starve every other session.
+ * Only MESSAGE frames are dropped; CONNECTED, RECEIPT, ERROR and DISCONNECT
+ * frames always go through. A session whose socket stays slow is closed by the
+ * transport send time and buffer limits in {@link WebSocketConfig}.
+ */
+@Component
+@Slf4j
+public class SlowConsumerInterceptor implements ExecutorChannelInterceptor {
+
+    private final int maxPendingPerSession;
+    private final Map<String, Integer> pending = new ConcurrentHashMap<>();
+    private final Counter dropped;
+
+    public SlowConsumerInterceptor(
+            @Value("${skillsphere.websocket.outbound.max-pending-per-session:1000}") int maxPendingPerSession,
+            MeterRegistry meterRegistry) {
+        this.maxPendingPerSession = maxPendingPerSession;
+        this.dropped = Counter.builder("websocket.outbound.dropped")
+                .description("Broker messages dropped for sessions over the pending limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String sessionId = trackedSessionId(message);
+        if (sessionId == null) {
+            return message;
+        }
+        Integer count = pending.merge(sessionId, 1, Integer::sum);
+        if (count > maxPendingPerSession) {
+            release(sessionId);
+            dropped.increment();
+            log.debug("Dropped message for slow WebSocket session {} ({} pending)", sessionId, count - 1);
+            return null;
+        }
+        return message;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        // Rejected by a full outbound queue, so afterMessageHandled will not run
+        if (ex != null) {
+            String sessionId = trackedSessionId(message);
+            if (sessionId != null) {
+                release(sessionId);
+            }
+        }
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        String sessionId = trackedSessionId(message);
+        if (sessionId != null) {
+            release(sessionId);
+        }
+    }
+
+    private String trackedSessionId(Message<?> message) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return null;
+        }
+        return SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+    }
+
+    private void release(String sessionId) {
+        pending.computeIfPresent(sessionId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+}
@@ -0,0 +1,39 @@
+package com.skillsphere.backend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Queue depth and busy threads of the STOMP inbound and outbound channel
+ * executors configured in {@link WebSocketConfig}.
+ */
+@Component
+public class WebSocketChannelMetrics {
+
+    public WebSocketChannelMetrics(
+            @Qualifier("clientInboundChannelExecutor") Executor inboundExecutor,
+            @Qualifier("clientOutboundChannelExecutor") Executor outboundExecutor,
+            MeterRegistry meterRegistry) {
+        bind("inbound", inboundExecutor, meterRegistry);
+        bind("outbound", outboundExecutor, meterRegistry);
+    }
+
+    private static void bind(String channel, Executor channelExecutor, MeterRegistry meterRegistry) {
+        if (!(channelExecutor instanceof ThreadPoolTaskExecutor executor)) {
+            return;
+        }
+        Gauge.builder("websocket.channel.queue.size", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Messages waiting for a channel executor thread")
+                .tag("channel", channel)
+                .register(meterRegistry);
+        Gauge.builder("websocket.channel.active.threads", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Channel executor threads handling a message")
+                .tag("channel", channel)
+                .register(meterRegistry);
+    }
+}
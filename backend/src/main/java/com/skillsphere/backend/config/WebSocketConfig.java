@@ -1,19 +1,47 @@
 package com.skillsphere.backend.config;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final SlowConsumerInterceptor slowConsumerInterceptor;
+
+    @Value("${skillsphere.websocket.inbound.pool-size:8}")
+    private int inboundPoolSize;
+
+    @Value("${skillsphere.websocket.inbound.queue-capacity:10000}")
+    private int inboundQueueCapacity;
+
+    @Value("${skillsphere.websocket.outbound.pool-size:8}")
+    private int outboundPoolSize;
+
+    @Value("${skillsphere.websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${skillsphere.websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${skillsphere.websocket.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${skillsphere.websocket.message-size-limit:65536}")
+    private int messageSizeLimit;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable simple message broker for pub/sub
-        config.enableSimpleBroker("/topic");
+        // Enable simple message broker for pub/sub (/queue for per-user errors)
+        config.enableSimpleBroker("/topic", "/queue");
         
         // Prefix for messages from client to server
         config.setApplicationDestinationPrefixes("/app");
@@ -30,4 +58,41 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         )
         .withSockJS();
 }
+
+    /**
+     * Frames from clients: fixed pool with a bounded queue instead of the
+     * default unbounded one, so a burst fails fast rather than piling up
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(inboundPoolSize)
+                .maxPoolSize(inboundPoolSize)
+                .queueCapacity(inboundQueueCapacity);
+    }
+
+    /**
+     * Frames to clients: bounded the same way, plus a per-session cap on
+     * queued broker messages (see {@link SlowConsumerInterceptor})
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor()
+                .corePoolSize(outboundPoolSize)
+                .maxPoolSize(outboundPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+        registration.interceptors(slowConsumerInterceptor);
+    }
+
+    /**
+     * Per-session limits. While one send to a session is in progress, further
+     * messages are buffered; a session whose send takes longer than the time
+     * limit or whose buffer grows past the size limit is disconnected.
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit);
+    }
 }
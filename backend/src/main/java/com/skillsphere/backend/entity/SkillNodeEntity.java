@@ -1,5 +1,6 @@
 package com.skillsphere.backend.entity;
 
+import com.skillsphere.backend.catalog.SkillTreeCatalogEntityListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -12,6 +13,7 @@ import java.util.List;
 @Setter
 @NoArgsConstructor
 @Entity
+@EntityListeners(SkillTreeCatalogEntityListener.class)
 @Table(name = "skill_nodes")
 public class SkillNodeEntity {
     
@@ -4,12 +4,14 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @Entity
+@DynamicUpdate  // The XP writer only writes the XP columns, so it never overwrites counters updated in SQL
 @Table(name = "user_profile")
 public class UserProfileEntity {
     
@@ -54,6 +56,12 @@ public class UserProfileEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Optimistic lock for the XP writer's read-modify-write; other profile counters
+    // are single-column SQL updates in UserProfileRepo and leave it alone
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -45,6 +45,21 @@ public class UserSkillTreeEntity {
     @Column(name = "xp_earned")
     private Integer xpEarned = 0;
     
+    // Completed node positions (order of SkillTreeSnapshot#getNodes) as a bitmap.
+    // Written asynchronously from user_node_progress; only valid while
+    // bitmap_signature matches the tree's current node signature.
+    @Column(name = "completed_nodes_bitmap")
+    private byte[] completedNodesBitmap;
+    
+    @Column(name = "bitmap_signature")
+    private Long bitmapSignature;
+    
+    // Optimistic lock; every counter update is a bulk update in UserSkillTreeRepo that bumps it,
+    // so the entity itself is only ever inserted, never saved over a loaded copy
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0")
+    private Long version;
+    
     // Relationships
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tree_id", nullable = false)
@@ -0,0 +1,53 @@
+package com.skillsphere.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row for an XP award. Written in the caller's transaction and
+ * applied to user_profile later by the batching writer (XpEventService).
+ * One row per (user, source type, source id), so repeated awards are ignored.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "xp_events",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "source_type", "source_id"}),
+       indexes = @Index(name = "idx_xp_events_pending", columnList = "processed_at, event_id"))
+public class XpEventEntity {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "event_id")
+    private Long eventId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "source_type", length = 50, nullable = false)
+    private XpSource sourceType;
+    
+    // Node, achievement or project id depending on source type
+    @Column(name = "source_id", nullable = false)
+    private Long sourceId;
+    
+    @Column(name = "xp_amount", nullable = false)
+    private Integer xpAmount;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Null until the writer has applied the XP to the profile
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+    
+    // Enum for event source
+    public enum XpSource {
+        NODE_COMPLETED, ACHIEVEMENT_UNLOCKED, PROJECT_COMPLETED
+    }
+}
@@ -0,0 +1,203 @@
+package com.skillsphere.backend.progress;
+
+import com.skillsphere.backend.cache.BoundedCache;
+import com.skillsphere.backend.cache.CacheMetrics;
+import com.skillsphere.backend.catalog.SkillTreeCatalogCache;
+import com.skillsphere.backend.catalog.SkillTreeSnapshot;
+import com.skillsphere.backend.entity.UserNodeProgressEntity;
+import com.skillsphere.backend.entity.UserSkillTreeEntity;
+import com.skillsphere.backend.repo.UserNodeProgressRepo;
+import com.skillsphere.backend.repo.UserSkillTreeRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Completed nodes per (user, tree) as a bitset of node positions.
+ *
+ * user_node_progress stays the source of truth. Bitsets are served from memory,
+ * fall back to the bitmap stored on the enrollment row, and are rebuilt from the
+ * progress rows when neither is usable (for example after the tree's nodes changed).
+ * Changed entries are reconciled against the rows and written back on a schedule.
+ */
+@Component
+public class CompletionBitsetStore {
+
+    private static final Logger logger = LogManager.getLogger(CompletionBitsetStore.class);
+
+    private final UserNodeProgressRepo userNodeProgressRepo;
+    private final UserSkillTreeRepo userSkillTreeRepo;
+    private final SkillTreeCatalogCache catalogCache;
+
+    private final BoundedCache<Key, Entry> entries;
+
+    // Entries whose stored bitmap needs to be reconciled and written back
+    private final Set<Key> dirty = ConcurrentHashMap.newKeySet();
+
+    public CompletionBitsetStore(
+            UserNodeProgressRepo userNodeProgressRepo,
+            UserSkillTreeRepo userSkillTreeRepo,
+            SkillTreeCatalogCache catalogCache,
+            MeterRegistry meterRegistry,
+            @Value("${skillsphere.progress-bitset.max-entries:10000}") int maxEntries,
+            @Value("${skillsphere.progress-bitset.ttl-minutes:60}") long ttlMinutes
+    ) {
+        this.userNodeProgressRepo = userNodeProgressRepo;
+        this.userSkillTreeRepo = userSkillTreeRepo;
+        this.catalogCache = catalogCache;
+        this.entries = new BoundedCache<>(maxEntries, Duration.ofMinutes(ttlMinutes));
+
+        CacheMetrics.bind(meterRegistry, "progressBitset", entries);
+    }
+
+    /**
+     * Get the completed nodes of an enrollment. The returned bitset is a copy.
+     */
+    public BitSet getCompleted(SkillTreeSnapshot tree, UserSkillTreeEntity enrollment) {
+        Key key = new Key(enrollment.getUserId(), tree.getTreeId());
+
+        Entry entry = entries.getIfPresent(key);
+        if (entry != null && entry.signature() == tree.getNodeSignature()) {
+            return (BitSet) entry.bits().clone();
+        }
+
+        boolean rebuilt = !hasCurrentBitmap(tree, enrollment);
+        BitSet bits = rebuilt
+                ? loadFromRows(key.userId(), tree)
+                : BitSet.valueOf(enrollment.getCompletedNodesBitmap());
+        entries.put(key, new Entry(tree.getNodeSignature(), bits));
+        if (rebuilt) {
+            // The stored bitmap is missing or stale; write the rebuilt one back so the next cold load can decode it
+            dirty.add(key);
+        }
+        return (BitSet) bits.clone();
+    }
+
+    /**
+     * Replace the cached bitset with one built from freshly loaded progress rows
+     */
+    public void refresh(SkillTreeSnapshot tree, UserSkillTreeEntity enrollment, BitSet completed) {
+        Key key = new Key(enrollment.getUserId(), tree.getTreeId());
+        entries.put(key, new Entry(tree.getNodeSignature(), (BitSet) completed.clone()));
+
+        if (!hasCurrentBitmap(tree, enrollment)
+                || !BitSet.valueOf(enrollment.getCompletedNodesBitmap()).equals(completed)) {
+            dirty.add(key);
+        }
+    }
+
+    /**
+     * Completed nodes as a bitset of positions in the tree
+     */
+    public static BitSet toBitSet(SkillTreeSnapshot tree, Collection<UserNodeProgressEntity> progressRows) {
+        BitSet completed = new BitSet(tree.nodeCount());
+        for (UserNodeProgressEntity progress : progressRows) {
+            int index = tree.indexOf(progress.getNodeId());
+            if (index >= 0 && Boolean.TRUE.equals(progress.getCompleted())) {
+                completed.set(index);
+            }
+        }
+        return completed;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNodeCompleted(NodeCompletedEvent event) {
+        Key key = new Key(event.userId(), event.treeId());
+        dirty.add(key);
+
+        synchronized (this) {
+            Entry entry = entries.getIfPresent(key);
+            if (entry == null) {
+                return;
+            }
+
+            SkillTreeSnapshot tree = catalogCache.getTree(event.treeId()).orElse(null);
+            int index = tree != null ? tree.indexOf(event.nodeId()) : -1;
+            if (index < 0 || entry.signature() != tree.getNodeSignature()) {
+                entries.invalidate(key);
+                return;
+            }
+
+            BitSet bits = (BitSet) entry.bits().clone();
+            bits.set(index);
+            entries.put(key, new Entry(entry.signature(), bits));
+        }
+    }
+
+    /**
+     * Reconcile changed bitsets against user_node_progress and store them on the enrollment
+     */
+    @Scheduled(fixedDelayString = "${skillsphere.progress-bitset.flush-interval-ms:5000}")
+    public void flushDirty() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        List<Key> pending = new ArrayList<>(dirty);
+        dirty.removeAll(pending);
+
+        for (Key key : pending) {
+            try {
+                reconcile(key);
+            } catch (Exception e) {
+                // Keep it dirty, otherwise the stale bitmap stays stored and is rebuilt on every cold load
+                dirty.add(key);
+                logger.warn("Failed to store completion bitmap for user {} tree {}: {}",
+                        key.userId(), key.treeId(), e.getMessage());
+            }
+        }
+        logger.debug("Reconciled {} completion bitmap(s)", pending.size());
+    }
+
+    private void reconcile(Key key) {
+        SkillTreeSnapshot tree = catalogCache.getTree(key.treeId()).orElse(null);
+        if (tree == null) {
+            entries.invalidate(key);
+            return;
+        }
+
+        BitSet fromRows = loadFromRows(key.userId(), tree);
+
+        synchronized (this) {
+            Entry entry = entries.getIfPresent(key);
+            if (entry != null && !entry.bits().equals(fromRows)) {
+                logger.debug("Completion bitset for user {} tree {} corrected from progress rows",
+                        key.userId(), key.treeId());
+            }
+            entries.put(key, new Entry(tree.getNodeSignature(), fromRows));
+        }
+
+        userSkillTreeRepo.updateCompletionBitmap(
+                key.userId(), key.treeId(), fromRows.toByteArray(), tree.getNodeSignature());
+    }
+
+    private BitSet loadFromRows(Long userId, SkillTreeSnapshot tree) {
+        return toBitSet(tree, userNodeProgressRepo.findByUserIdAndTreeId(userId, tree.getTreeId()));
+    }
+
+    private static boolean hasCurrentBitmap(SkillTreeSnapshot tree, UserSkillTreeEntity enrollment) {
+        return enrollment.getCompletedNodesBitmap() != null
+                && Objects.equals(enrollment.getBitmapSignature(), tree.getNodeSignature());
+    }
+
+    private record Key(Long userId, Long treeId) {
+    }
+
+    // Bits are never mutated once stored; updates replace the entry
+    private record Entry(long signature, BitSet bits) {
+    }
+}
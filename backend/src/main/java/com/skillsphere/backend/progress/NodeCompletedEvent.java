@@ -0,0 +1,7 @@
+package com.skillsphere.backend.progress;
+
+/**
+ * Published when a user completes a skill node
+ */
+public record NodeCompletedEvent(Long userId, Long treeId, Long nodeId) {
+}
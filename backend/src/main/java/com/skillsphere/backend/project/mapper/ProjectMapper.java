@@ -8,19 +8,26 @@ import com.skillsphere.backend.project.entity.ProjectSubmissionEntity;
 import com.skillsphere.backend.project.entity.SubmissionStatus;
 import com.skillsphere.backend.project.repo.ProjectRepo;
 import com.skillsphere.backend.project.repo.ProjectSubmissionRepo;
+import com.skillsphere.backend.service.UserDirectoryService;
+import com.skillsphere.backend.service.UserDirectoryService.UserSummary;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class ProjectMapper {
 
+    private static final String UNKNOWN_PROJECT = "Unknown Project";
+
     private final ObjectMapper objectMapper;
     private final ProjectSubmissionRepo submissionRepo;
     private final ProjectRepo projectRepo;
+    private final UserDirectoryService userDirectory;
 
     /**
      * Convert ProjectEntity to ProjectDTO (summary for list view)
@@ -129,14 +136,19 @@ public class ProjectMapper {
         // Fetch project title
         String projectTitle = projectRepo.findById(entity.getProjectId())
                 .map(ProjectEntity::getTitle)
-                .orElse("Unknown Project");
+                .orElse(UNKNOWN_PROJECT);
+
+        return toSubmissionResponseDto(entity, projectTitle, userDirectory.get(entity.getUserId()));
+    }
 
+    private ProjectSubmissionResponseDTO toSubmissionResponseDto(
+            ProjectSubmissionEntity entity, String projectTitle, UserSummary user) {
         return ProjectSubmissionResponseDTO.builder()
                 .id(entity.getId())
                 .projectId(entity.getProjectId())
                 .projectTitle(projectTitle)
                 .userId(entity.getUserId())
-                .username("User" + entity.getUserId())  // TODO: Fetch real username
+                .username(user.username())
                 .githubUrl(entity.getGithubUrl())
                 .liveUrl(entity.getLiveUrl())
                 .codeSnippet(entity.getCodeSnippet())
@@ -151,6 +163,24 @@ public class ProjectMapper {
                 .build();
     }
 
+    /**
+     * Convert submissions to response DTOs, resolving all usernames and project titles in one lookup each
+     */
+    public List<ProjectSubmissionResponseDTO> toSubmissionResponseDtoList(List<ProjectSubmissionEntity> entities) {
+        Map<Long, UserSummary> users = userDirectory.getAll(
+                entities.stream().map(ProjectSubmissionEntity::getUserId).collect(Collectors.toSet()));
+        Map<Long, String> projectTitles = projectRepo.findAllById(
+                        entities.stream().map(ProjectSubmissionEntity::getProjectId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(ProjectEntity::getId, ProjectEntity::getTitle));
+
+        return entities.stream()
+                .map(entity -> toSubmissionResponseDto(entity,
+                        projectTitles.getOrDefault(entity.getProjectId(), UNKNOWN_PROJECT),
+                        UserSummary.of(users, entity.getUserId())))
+                .collect(Collectors.toList());
+    }
+
     // ========================================
     // HELPER METHODS
     // ========================================
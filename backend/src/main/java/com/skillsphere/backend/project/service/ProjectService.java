@@ -1,11 +1,13 @@
 package com.skillsphere.backend.project.service;
 
+import com.skillsphere.backend.entity.XpEventEntity.XpSource;
 import com.skillsphere.backend.exception.EntityNotFoundException;
 import com.skillsphere.backend.project.dto.*;
 import com.skillsphere.backend.project.entity.*;
 import com.skillsphere.backend.project.mapper.ProjectMapper;
 import com.skillsphere.backend.project.repo.ProjectRepo;
 import com.skillsphere.backend.project.repo.ProjectSubmissionRepo;
+import com.skillsphere.backend.service.XpEventService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +24,7 @@ public class ProjectService {
     private final ProjectRepo projectRepo;
     private final ProjectSubmissionRepo submissionRepo;
     private final ProjectMapper projectMapper;  // ⭐ Inject mapper
+    private final XpEventService xpEventService;
 
     // ========================================
     // PUBLIC API METHODS
@@ -92,9 +95,7 @@ public class ProjectService {
      */
     public List<ProjectSubmissionResponseDTO> getUserSubmissions(Long userId) {
         List<ProjectSubmissionEntity> submissions = submissionRepo.findByUserId(userId);
-        return submissions.stream()
-                .map(projectMapper::toSubmissionResponseDto)
-                .collect(Collectors.toList());
+        return projectMapper.toSubmissionResponseDtoList(submissions);
     }
 
     /**
@@ -102,9 +103,7 @@ public class ProjectService {
      */
     public List<ProjectSubmissionResponseDTO> getPublicSubmissions() {
         List<ProjectSubmissionEntity> submissions = submissionRepo.findByIsPublicTrue();
-        return submissions.stream()
-                .map(projectMapper::toSubmissionResponseDto)
-                .collect(Collectors.toList());
+        return projectMapper.toSubmissionResponseDtoList(submissions);
     }
 
     // ========================================
@@ -173,7 +172,9 @@ public class ProjectService {
         submission.setCompletedAt(LocalDateTime.now());
         submission.setXpEarned(project.getXpReward());
 
-        // TODO: Update user's total XP in UserProfile
+        // Award XP to user (applied asynchronously by the XP writer)
+        xpEventService.enqueue(submission.getUserId(), XpSource.PROJECT_COMPLETED,
+                project.getId(), project.getXpReward());
 
         ProjectSubmissionEntity updated = submissionRepo.save(submission);
         return projectMapper.toSubmissionResponseDto(updated);
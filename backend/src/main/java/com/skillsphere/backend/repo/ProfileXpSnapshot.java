@@ -0,0 +1,8 @@
+package com.skillsphere.backend.repo;
+
+/**
+ * A profile's level and XP together with the XP still waiting in the xp_events outbox,
+ * read in one statement (see {@link UserProfileRepo#findXpSnapshot})
+ */
+public record ProfileXpSnapshot(Integer level, Integer currentXp, Long pendingXp) {
+}
@@ -6,7 +6,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SkillNodeRepo extends JpaRepository<SkillNodeEntity, Long> {
@@ -18,6 +20,14 @@ public interface SkillNodeRepo extends JpaRepository<SkillNodeEntity, Long> {
     // ✅ ADD THIS METHOD - Find all nodes in a tree (without ordering)
     List<SkillNodeEntity> findByTreeId(Long treeId);
 
+    // Find all nodes of several trees at once
+    // SQL: SELECT * FROM skill_nodes WHERE tree_id IN (?, ?, ...)
+    List<SkillNodeEntity> findByTreeIdIn(Collection<Long> treeIds);
+
+    // Look up which tree a node belongs to
+    @Query("SELECT n.treeId FROM SkillNodeEntity n WHERE n.nodeId = :nodeId")
+    Optional<Long> findTreeIdByNodeId(@Param("nodeId") Long nodeId);
+
     // Find root nodes (no parent) in a tree
     // SQL: SELECT * FROM skill_nodes WHERE tree_id = ? AND parent_node_id IS NULL
     List<SkillNodeEntity> findByTreeIdAndParentNodeIdIsNull(Long treeId);
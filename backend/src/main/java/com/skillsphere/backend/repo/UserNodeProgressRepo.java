@@ -2,9 +2,11 @@ package com.skillsphere.backend.repo;
 
 import com.skillsphere.backend.entity.UserNodeProgressEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +22,33 @@ public interface UserNodeProgressRepo extends JpaRepository<UserNodeProgressEnti
     // Find all progress records for a user
     List<UserNodeProgressEntity> findByUserId(Long userId);
     
+    // Find user's progress rows for the nodes of a single tree
+    @Query("SELECT p FROM UserNodeProgressEntity p " +
+           "JOIN SkillNodeEntity n ON p.nodeId = n.nodeId " +
+           "WHERE p.userId = :userId AND n.treeId = :treeId")
+    List<UserNodeProgressEntity> findByUserIdAndTreeId(@Param("userId") Long userId, @Param("treeId") Long treeId);
+    
+    // Mark a node completed, creating the progress row if needed.
+    // Returns 0 when the node was already completed, so a repeated completion is a no-op
+    @Modifying
+    @Query(value = "INSERT INTO user_node_progress (user_id, node_id, completed, completion_date, time_spent) " +
+                   "VALUES (:userId, :nodeId, true, :completedAt, 0) " +
+                   "ON CONFLICT (user_id, node_id) DO UPDATE " +
+                   "SET completed = true, completion_date = EXCLUDED.completion_date " +
+                   "WHERE user_node_progress.completed IS NOT TRUE",
+           nativeQuery = true)
+    int markCompleted(@Param("userId") Long userId,
+                      @Param("nodeId") Long nodeId,
+                      @Param("completedAt") LocalDateTime completedAt);
+    
+    // Create a started (not completed) progress row unless one exists
+    @Modifying
+    @Query(value = "INSERT INTO user_node_progress (user_id, node_id, completed, time_spent) " +
+                   "VALUES (:userId, :nodeId, false, 0) " +
+                   "ON CONFLICT (user_id, node_id) DO NOTHING",
+           nativeQuery = true)
+    int insertStartedIfAbsent(@Param("userId") Long userId, @Param("nodeId") Long nodeId);
+    
     // Check if user completed a node
     boolean existsByUserIdAndNodeIdAndCompleted(Long userId, Long nodeId, Boolean completed);
     
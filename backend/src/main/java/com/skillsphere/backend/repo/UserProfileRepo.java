@@ -2,7 +2,13 @@ package com.skillsphere.backend.repo;
 
 import com.skillsphere.backend.entity.UserProfileEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +21,29 @@ public interface UserProfileRepo extends JpaRepository<UserProfileEntity, Long>
     // Check if profile exists for a user
     // SQL: SELECT EXISTS(SELECT 1 FROM user_profile WHERE user_id = ?)
     boolean existsByUserId(Long userId);
+    
+    // Profiles of several users at once
+    // SQL: SELECT * FROM user_profile WHERE user_id IN (...)
+    List<UserProfileEntity> findByUserIdIn(Collection<Long> userIds);
+    
+    // Level, XP and unapplied outbox XP in one statement, so the XP writer cannot
+    // apply a batch between reading the profile and summing the pending events
+    // SQL: SELECT p.level, p.current_xp, (SELECT SUM(xp_amount) FROM xp_events ...) FROM user_profile p WHERE p.user_id = ?
+    @Query("SELECT new com.skillsphere.backend.repo.ProfileXpSnapshot(p.level, p.currentXp, " +
+           "(SELECT COALESCE(SUM(e.xpAmount), 0L) FROM XpEventEntity e WHERE e.userId = p.userId AND e.processedAt IS NULL)) " +
+           "FROM UserProfileEntity p WHERE p.userId = :userId")
+    Optional<ProfileXpSnapshot> findXpSnapshot(@Param("userId") Long userId);
+    
+    // Count one more unlocked achievement without reading or rewriting the profile
+    // SQL: UPDATE user_profile SET achievements_count = achievements_count + 1 WHERE user_id = ?
+    @Modifying
+    @Query("UPDATE UserProfileEntity p SET p.achievementsCount = COALESCE(p.achievementsCount, 0) + 1, " +
+           "p.updatedAt = :now WHERE p.userId = :userId")
+    int incrementAchievements(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+    
+    // Store the learning streak without reading or rewriting the profile
+    // SQL: UPDATE user_profile SET learning_streak = ? WHERE user_id = ?
+    @Modifying
+    @Query("UPDATE UserProfileEntity p SET p.learningStreak = :streakDays, p.updatedAt = :now WHERE p.userId = :userId")
+    int updateStreak(@Param("userId") Long userId, @Param("streakDays") Integer streakDays, @Param("now") LocalDateTime now);
 }
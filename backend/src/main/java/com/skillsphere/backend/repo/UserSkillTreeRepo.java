@@ -3,9 +3,13 @@ package com.skillsphere.backend.repo;
 import com.skillsphere.backend.entity.UserSkillTreeEntity;
 import com.skillsphere.backend.entity.UserSkillTreeEntity.EnrollmentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +28,54 @@ public interface UserSkillTreeRepo extends JpaRepository<UserSkillTreeEntity, Lo
     // SQL: SELECT * FROM user_skill_trees WHERE user_id = ? AND tree_id = ?
     Optional<UserSkillTreeEntity> findByUserIdAndTreeId(Long userId, Long treeId);
     
+    // Tree ids the user is enrolled in
+    // SQL: SELECT tree_id FROM user_skill_trees WHERE user_id = ?
+    @Query("SELECT u.treeId FROM UserSkillTreeEntity u WHERE u.userId = :userId")
+    List<Long> findTreeIdsByUserId(@Param("userId") Long userId);
+    
+    // Count one more completed node; percentage and status are derived in the same statement
+    // so concurrent completions cannot lose increments
+    // SQL: UPDATE user_skill_trees SET nodes_completed = nodes_completed + 1, xp_earned = xp_earned + ?, ...
+    //      WHERE user_id = ? AND tree_id = ?
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE UserSkillTreeEntity u SET " +
+           "u.nodesCompleted = COALESCE(u.nodesCompleted, 0) + 1, " +
+           "u.xpEarned = COALESCE(u.xpEarned, 0) + :xp, " +
+           "u.progressPercentage = (COALESCE(u.nodesCompleted, 0) + 1) * 100.00bd / :totalNodes, " +
+           "u.status = CASE WHEN COALESCE(u.nodesCompleted, 0) + 1 >= :totalNodes THEN :completedStatus ELSE u.status END, " +
+           "u.lastAccessed = :now, " +
+           "u.version = COALESCE(u.version, 0) + 1 " +
+           "WHERE u.userId = :userId AND u.treeId = :treeId")
+    int incrementProgress(@Param("userId") Long userId,
+                          @Param("treeId") Long treeId,
+                          @Param("xp") Integer xp,
+                          @Param("totalNodes") Integer totalNodes,
+                          @Param("completedStatus") EnrollmentStatus completedStatus,
+                          @Param("now") LocalDateTime now);
+    
+    // Stored progress percentage of an enrollment
+    // SQL: SELECT progress_percentage FROM user_skill_trees WHERE user_id = ? AND tree_id = ?
+    @Query("SELECT u.progressPercentage FROM UserSkillTreeEntity u WHERE u.userId = :userId AND u.treeId = :treeId")
+    Optional<BigDecimal> findProgressPercentage(@Param("userId") Long userId, @Param("treeId") Long treeId);
+    
+    // Record an access without rewriting the rest of the enrollment
+    // SQL: UPDATE user_skill_trees SET last_accessed = ? WHERE user_id = ? AND tree_id = ?
+    @Modifying
+    @Query("UPDATE UserSkillTreeEntity u SET u.lastAccessed = :now WHERE u.userId = :userId AND u.treeId = :treeId")
+    int touchLastAccessed(@Param("userId") Long userId, @Param("treeId") Long treeId, @Param("now") LocalDateTime now);
+    
+    // Store the completed-node bitmap without touching the rest of the row
+    // SQL: UPDATE user_skill_trees SET completed_nodes_bitmap = ?, bitmap_signature = ? WHERE user_id = ? AND tree_id = ?
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserSkillTreeEntity u SET u.completedNodesBitmap = :bitmap, u.bitmapSignature = :signature, " +
+           "u.version = COALESCE(u.version, 0) + 1 " +
+           "WHERE u.userId = :userId AND u.treeId = :treeId")
+    int updateCompletionBitmap(@Param("userId") Long userId,
+                               @Param("treeId") Long treeId,
+                               @Param("bitmap") byte[] bitmap,
+                               @Param("signature") Long signature);
+    
     // Check if user is enrolled in a tree
     boolean existsByUserIdAndTreeId(Long userId, Long treeId);
     
@@ -0,0 +1,41 @@
+package com.skillsphere.backend.repo;
+
+import com.skillsphere.backend.entity.XpEventEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface XpEventRepo extends JpaRepository<XpEventEntity, Long> {
+    
+    // Record an XP award unless the same (user, source type, source id) was already recorded
+    // Returns 0 for a duplicate
+    @Modifying
+    @Query(value = "INSERT INTO xp_events (user_id, source_type, source_id, xp_amount, created_at) " +
+                   "VALUES (:userId, :sourceType, :sourceId, :xpAmount, :createdAt) " +
+                   "ON CONFLICT (user_id, source_type, source_id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId,
+                       @Param("sourceType") String sourceType,
+                       @Param("sourceId") Long sourceId,
+                       @Param("xpAmount") Integer xpAmount,
+                       @Param("createdAt") LocalDateTime createdAt);
+    
+    // Claim a batch of unprocessed events; rows locked by another writer are skipped, and events of
+    // users without a profile stay pending (without blocking the rest) until the profile exists
+    @Query(value = "SELECT * FROM xp_events e WHERE e.processed_at IS NULL " +
+                   "AND EXISTS (SELECT 1 FROM user_profile p WHERE p.user_id = e.user_id) " +
+                   "ORDER BY e.event_id LIMIT :limit FOR UPDATE OF e SKIP LOCKED",
+           nativeQuery = true)
+    List<XpEventEntity> claimPending(@Param("limit") int limit);
+    
+    // SQL: UPDATE xp_events SET processed_at = ? WHERE event_id IN (...)
+    @Modifying
+    @Query("UPDATE XpEventEntity e SET e.processedAt = :processedAt WHERE e.eventId IN :eventIds")
+    int markProcessed(@Param("eventIds") Collection<Long> eventIds, @Param("processedAt") LocalDateTime processedAt);
+}
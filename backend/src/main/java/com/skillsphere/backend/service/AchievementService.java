@@ -3,6 +3,7 @@ package com.skillsphere.backend.service;
 import com.skillsphere.backend.dto.AchievementDTO;
 import com.skillsphere.backend.entity.AchievementEntity;
 import com.skillsphere.backend.entity.UserAchievementEntity;
+import com.skillsphere.backend.entity.XpEventEntity.XpSource;
 import com.skillsphere.backend.exception.EntityNotFoundException;
 import com.skillsphere.backend.mapper.AchievementMapper;
 import com.skillsphere.backend.repo.AchievementRepo;
@@ -26,6 +27,7 @@ public class AchievementService {
     private final UserAchievementRepo userAchievementRepo;
     private final AchievementMapper achievementMapper;
     private final UserProfileService userProfileService;
+    private final XpEventService xpEventService;
     
     /**
      * Get all achievements with user's unlock status
@@ -100,8 +102,8 @@ public class AchievementService {
         
         UserAchievementEntity saved = userAchievementRepo.save(userAchievement);
         
-        // Award XP to user
-        userProfileService.awardXp(userId, achievement.getXpReward());
+        // Award XP to user (applied asynchronously by the XP writer)
+        xpEventService.enqueue(userId, XpSource.ACHIEVEMENT_UNLOCKED, achievementId, achievement.getXpReward());
         
         // Increment achievement count
         userProfileService.incrementAchievements(userId);
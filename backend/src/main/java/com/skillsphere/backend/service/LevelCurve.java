@@ -0,0 +1,80 @@
+package com.skillsphere.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The XP level curve, evaluated in closed form.
+ *
+ * Going from level L to L + 1 costs 100 + (L - 1) * 50 XP (100, 150, 200, ...),
+ * so reaching level L from level 1 takes 25n^2 + 75n XP with n = L - 1.
+ * Any XP grant is therefore O(1) regardless of how many levels it crosses.
+ */
+@Component
+public class LevelCurve {
+
+    private static final int BASE_XP = 100;
+    private static final int XP_STEP = 50;
+
+    // Minimum level -> title
+    private static final NavigableMap<Integer, String> TITLES = new TreeMap<>(Map.of(
+            1, "Novice Learner",
+            5, "Eager Learner",
+            10, "Aspiring Developer",
+            20, "Skilled Craftsman",
+            30, "Senior Developer",
+            40, "Expert Coder",
+            50, "Master Builder"
+    ));
+
+    /**
+     * XP needed to go from a level to the next one
+     */
+    public int xpForNextLevel(int level) {
+        return BASE_XP + (Math.max(level, 1) - 1) * XP_STEP;
+    }
+
+    /**
+     * Total XP needed to reach a level from level 1
+     */
+    public long xpToReachLevel(int level) {
+        long n = Math.max(level, 1) - 1;
+        return 25 * n * n + 75 * n;
+    }
+
+    /**
+     * Highest level reachable with a total amount of XP
+     */
+    public int levelForXp(long totalXp) {
+        if (totalXp <= 0) {
+            return 1;
+        }
+        // Positive root of 25n^2 + 75n - totalXp = 0, corrected for floating point error
+        long n = (long) ((-75 + Math.sqrt(5625.0 + 100.0 * totalXp)) / 50);
+        while (n > 0 && 25 * n * n + 75 * n > totalXp) {
+            n--;
+        }
+        while (25 * (n + 1) * (n + 1) + 75 * (n + 1) <= totalXp) {
+            n++;
+        }
+        return (int) Math.min(n + 1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Level reached from a level with some XP into it, after gaining more XP
+     */
+    public int levelAfter(int level, int currentXp, long gainedXp) {
+        return Math.max(level, levelForXp(xpToReachLevel(level) + currentXp + gainedXp));
+    }
+
+    /**
+     * Title shown for a level
+     */
+    public String titleForLevel(int level) {
+        Map.Entry<Integer, String> entry = TITLES.floorEntry(level);
+        return entry != null ? entry.getValue() : TITLES.firstEntry().getValue();
+    }
+}
@@ -1,21 +1,27 @@
 package com.skillsphere.backend.service;
 
+import com.skillsphere.backend.catalog.SkillNodeSnapshot;
+import com.skillsphere.backend.catalog.SkillTreeCatalogCache;
+import com.skillsphere.backend.catalog.SkillTreeGraph;
+import com.skillsphere.backend.catalog.SkillTreeSnapshot;
 import com.skillsphere.backend.dto.CompleteNodeResponseDTO;
 import com.skillsphere.backend.dto.EnrolledTreeDTO;
 import com.skillsphere.backend.dto.EnrollTreeResponseDTO;
 import com.skillsphere.backend.dto.SkillTreeDetailDTO;
 import com.skillsphere.backend.dto.SkillTreeSummaryDTO;
 import com.skillsphere.backend.dto.TreeNodeDTO;
-import com.skillsphere.backend.entity.SkillNodeEntity;
-import com.skillsphere.backend.entity.SkillTreeEntity;
 import com.skillsphere.backend.entity.UserEntity;
 import com.skillsphere.backend.entity.UserNodeProgressEntity;
 import com.skillsphere.backend.entity.UserProfileEntity;
 import com.skillsphere.backend.entity.UserSkillTreeEntity;
 import com.skillsphere.backend.entity.UserSkillTreeEntity.EnrollmentStatus;
+import com.skillsphere.backend.entity.XpEventEntity.XpSource;
 import com.skillsphere.backend.exception.EntityNotFoundException;
 import com.skillsphere.backend.mapper.SkillTreeMapper;
+import com.skillsphere.backend.progress.CompletionBitsetStore;
+import com.skillsphere.backend.progress.NodeCompletedEvent;
 import com.skillsphere.backend.repo.SkillNodeRepo;
+import com.skillsphere.backend.repo.ProfileXpSnapshot;
 import com.skillsphere.backend.repo.SkillTreeRepo;
 import com.skillsphere.backend.repo.UserNodeProgressRepo;
 import com.skillsphere.backend.repo.UserProfileRepo;
@@ -24,14 +30,20 @@ import com.skillsphere.backend.repo.UserSkillTreeRepo;
 import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -47,6 +59,11 @@ public class SkillTreeService {
     private final UserRepo userRepo;
     private final UserProfileRepo userProfileRepo;
     private final SkillTreeMapper skillTreeMapper;
+    private final SkillTreeCatalogCache catalogCache;
+    private final CompletionBitsetStore completionStore;
+    private final LevelCurve levelCurve;
+    private final XpEventService xpEventService;
+    private final ApplicationEventPublisher eventPublisher;
     
     /**
      * Get all available skill trees
@@ -55,7 +72,7 @@ public class SkillTreeService {
     public List<SkillTreeSummaryDTO> getAllSkillTrees() {
         logger.debug("Fetching all skill trees");
         
-        return skillTreeRepo.findAll().stream()
+        return catalogCache.getAllTrees().stream()
                 .map(skillTreeMapper::toSummaryDto)
                 .collect(Collectors.toList());
     }
@@ -68,13 +85,11 @@ public class SkillTreeService {
         logger.debug("Fetching enrolled trees for user: {}", userId);
         
         List<UserSkillTreeEntity> enrollments = userSkillTreeRepo.findByUserId(userId);
+        Map<Long, SkillTreeSnapshot> trees = catalogCache.getTrees(
+                enrollments.stream().map(UserSkillTreeEntity::getTreeId).toList());
         
         return enrollments.stream()
-                .map(enrollment -> {
-                    SkillTreeEntity tree = skillTreeRepo.findById(enrollment.getTreeId())
-                            .orElse(null);
-                    return skillTreeMapper.toEnrolledDto(enrollment, tree);
-                })
+                .map(enrollment -> skillTreeMapper.toEnrolledDto(enrollment, trees.get(enrollment.getTreeId())))
                 .filter(dto -> dto != null)  // Remove any failed mappings
                 .collect(Collectors.toList());
     }
@@ -88,13 +103,11 @@ public class SkillTreeService {
         
         List<UserSkillTreeEntity> enrollments = userSkillTreeRepo
                 .findByUserIdAndStatus(userId, EnrollmentStatus.ACTIVE);
+        Map<Long, SkillTreeSnapshot> trees = catalogCache.getTrees(
+                enrollments.stream().map(UserSkillTreeEntity::getTreeId).toList());
         
         return enrollments.stream()
-                .map(enrollment -> {
-                    SkillTreeEntity tree = skillTreeRepo.findById(enrollment.getTreeId())
-                            .orElse(null);
-                    return skillTreeMapper.toEnrolledDto(enrollment, tree);
-                })
+                .map(enrollment -> skillTreeMapper.toEnrolledDto(enrollment, trees.get(enrollment.getTreeId())))
                 .filter(dto -> dto != null)
                 .collect(Collectors.toList());
     }
@@ -107,7 +120,7 @@ public class SkillTreeService {
         logger.info("Enrolling user {} in tree {}", userId, treeId);
         
         // Check if tree exists
-        SkillTreeEntity tree = skillTreeRepo.findById(treeId)
+        SkillTreeSnapshot tree = catalogCache.getTree(treeId)
                 .orElseThrow(() -> new EntityNotFoundException("Skill tree not found: " + treeId));
         
         // Check if already enrolled
@@ -119,7 +132,7 @@ public class SkillTreeService {
         UserSkillTreeEntity enrollment = new UserSkillTreeEntity();
         enrollment.setUserId(userId);
         enrollment.setTreeId(treeId);
-        enrollment.setSkillTree(tree);
+        enrollment.setSkillTree(skillTreeRepo.getReferenceById(treeId));
         enrollment.setStatus(EnrollmentStatus.ACTIVE);
         enrollment.setProgressPercentage(BigDecimal.ZERO);
         enrollment.setNodesCompleted(0);
@@ -138,37 +151,16 @@ public class SkillTreeService {
     public void updateTreeProgress(Long userId, Long treeId, Integer xpEarned) {
         logger.debug("Updating tree progress for user {} in tree {}", userId, treeId);
         
-        UserSkillTreeEntity enrollment = userSkillTreeRepo
-                .findByUserIdAndTreeId(userId, treeId)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Enrollment not found for user " + userId + " and tree " + treeId));
-        
-        SkillTreeEntity tree = skillTreeRepo.findById(treeId)
+        SkillTreeSnapshot tree = catalogCache.getTree(treeId)
                 .orElseThrow(() -> new EntityNotFoundException("Skill tree not found: " + treeId));
         
-        // Increment completed nodes
-        enrollment.setNodesCompleted(enrollment.getNodesCompleted() + 1);
-        
-        // Calculate progress percentage
-        if (tree.getTotalNodes() > 0) {
-            BigDecimal progress = BigDecimal.valueOf(enrollment.getNodesCompleted())
-                    .divide(BigDecimal.valueOf(tree.getTotalNodes()), 4, RoundingMode.HALF_UP)
-                    .multiply(BigDecimal.valueOf(100))
-                    .setScale(2, RoundingMode.HALF_UP);
-            
-            enrollment.setProgressPercentage(progress);
+        // Node count, percentage, XP and status are updated in one statement
+        int updated = userSkillTreeRepo.incrementProgress(userId, treeId, xpEarned, tree.nodeCount(),
+                EnrollmentStatus.COMPLETED, LocalDateTime.now());
+        if (updated == 0) {
+            throw new EntityNotFoundException(
+                    "Enrollment not found for user " + userId + " and tree " + treeId);
         }
-        
-        // Add XP earned
-        enrollment.setXpEarned(enrollment.getXpEarned() + xpEarned);
-        
-        // Check if completed
-        if (enrollment.getNodesCompleted().equals(tree.getTotalNodes())) {
-            enrollment.setStatus(EnrollmentStatus.COMPLETED);
-            logger.info("User {} completed tree {}!", userId, treeId);
-        }
-        
-        userSkillTreeRepo.save(enrollment);
     }
     
     /**
@@ -189,52 +181,24 @@ public class SkillTreeService {
 
     @Transactional(readOnly = true)
     public SkillTreeDetailDTO getTreeDetail(Long treeId, Long userId) {
-        // Get the tree
-        SkillTreeEntity tree = skillTreeRepo.findById(treeId)
+        // Get the tree (nodes come sorted by order index)
+        SkillTreeSnapshot tree = catalogCache.getTree(treeId)
                 .orElseThrow(() -> new RuntimeException("Skill tree not found: " + treeId));
 
         // Get user's enrollment
         UserSkillTreeEntity enrollment = userSkillTreeRepo.findByUserIdAndTreeId(userId, treeId)
                 .orElseThrow(() -> new RuntimeException("User not enrolled in this tree"));
 
-        // Get all nodes for this tree
-        List<SkillNodeEntity> nodes = skillNodeRepo.findByTreeIdOrderByOrderIndexAsc(treeId);
-
-        // Get user's progress for all nodes
-        List<UserNodeProgressEntity> progressList = userNodeProgressRepo.findByUserId(userId);
-
-        // Calculate totals
-        int totalXp = nodes.stream()
-                .mapToInt(node -> node.getXpReward() != null ? node.getXpReward() : 0)
-                .sum();
-
-        // Build node DTOs
-        List<TreeNodeDTO> nodeDTOs = nodes.stream()
-                .map(node -> {
-                    // Find progress for this specific node
-                    UserNodeProgressEntity progress = progressList.stream()
-                            .filter(p -> p.getNodeId().equals(node.getNodeId()))
-                            .findFirst()
-                            .orElse(null);
+        // Get user's progress for this tree only, indexed by node id
+        Map<Long, UserNodeProgressEntity> progressByNodeId = new HashMap<>();
+        for (UserNodeProgressEntity progress : userNodeProgressRepo.findByUserIdAndTreeId(userId, treeId)) {
+            progressByNodeId.put(progress.getNodeId(), progress);
+        }
 
-                    boolean isCompleted = progress != null && progress.getCompleted();
-                    boolean isLocked = determineIfNodeIsLocked(node, progressList, nodes);
-
-                    return TreeNodeDTO.builder()
-                            .nodeId(node.getNodeId())
-                            .title(node.getTitle())
-                            .description(node.getDescription())
-                            .nodeType(node.getNodeType() != null ? node.getNodeType().name() : "LESSON")
-                            .xpReward(node.getXpReward() != null ? node.getXpReward() : 10)
-                            .estimatedMinutes(node.getEstimatedMinutes() != null ? node.getEstimatedMinutes() : 15)
-                            .orderIndex(node.getOrderIndex())
-                            .isCompleted(isCompleted)
-                            .isLocked(isLocked)
-                            .completedDate(progress != null ? progress.getCompletionDate() : null)
-                            .prerequisiteNodes(new ArrayList<>())
-                            .build();
-                })
-                .collect(Collectors.toList());
+        // Completed nodes by position in the tree
+        BitSet completed = CompletionBitsetStore.toBitSet(tree, progressByNodeId.values());
+        completionStore.refresh(tree, enrollment, completed);
+        List<TreeNodeDTO> nodeDTOs = toNodeDTOs(tree, progressByNodeId, completed);
 
         return SkillTreeDetailDTO.builder()
                 .treeId(tree.getTreeId())
@@ -243,10 +207,10 @@ public class SkillTreeService {
                 .category(tree.getCategory())
                 .difficulty(tree.getDifficulty() != null ? tree.getDifficulty().name() : "BEGINNER")
                 .thumbnailUrl(tree.getThumbnailUrl())
-                .totalNodes(nodes.size())
+                .totalNodes(tree.nodeCount())
                 .completedNodes(enrollment.getNodesCompleted())
                 .progressPercentage(enrollment.getProgressPercentage().doubleValue())
-                .totalXp(totalXp)
+                .totalXp(tree.getTotalXp())
                 .earnedXp(enrollment.getXpEarned())
                 .estimatedHours(tree.getEstimatedHours())
                 .nodes(nodeDTOs)
@@ -257,92 +221,97 @@ public class SkillTreeService {
     }
 
     /**
-     * Complete a node and award XP
+     * Node DTOs in tree order, with the locked frontier computed in one pass over the graph
+     */
+    static List<TreeNodeDTO> toNodeDTOs(SkillTreeSnapshot tree, Map<Long, UserNodeProgressEntity> progressByNodeId,
+                                        BitSet completed) {
+        List<SkillNodeSnapshot> nodes = tree.getNodes();
+        SkillTreeGraph graph = tree.getGraph();
+        BitSet locked = graph.lockedNodes(completed);
+
+        List<TreeNodeDTO> nodeDTOs = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            SkillNodeSnapshot node = nodes.get(i);
+            UserNodeProgressEntity progress = progressByNodeId.get(node.getNodeId());
+
+            nodeDTOs.add(TreeNodeDTO.builder()
+                    .nodeId(node.getNodeId())
+                    .title(node.getTitle())
+                    .description(node.getDescription())
+                    .nodeType(node.getNodeType() != null ? node.getNodeType().name() : "LESSON")
+                    .xpReward(node.getXpReward() != null ? node.getXpReward() : 10)
+                    .estimatedMinutes(node.getEstimatedMinutes() != null ? node.getEstimatedMinutes() : 15)
+                    .orderIndex(node.getOrderIndex())
+                    .isCompleted(completed.get(i))
+                    .isLocked(locked.get(i))
+                    .completedDate(progress != null ? progress.getCompletionDate() : null)
+                    .prerequisiteNodes(tree.nodeIds(graph.prerequisitesOf(i)))
+                    .build());
+        }
+        return nodeDTOs;
+    }
+
+    /**
+     * Complete a node and award XP.
+     * Idempotent per (user, node): repeating a completion returns success without awarding XP again.
      */
     @Transactional
     public CompleteNodeResponseDTO completeNode(Long treeId, Long nodeId, Long userId) {
-        // Verify user exists
-        UserEntity user = userRepo.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Verify tree exists
-        SkillTreeEntity tree = skillTreeRepo.findById(treeId)
+        // Tree and node metadata come from the catalog cache (no queries)
+        SkillTreeSnapshot tree = catalogCache.getTree(treeId)
                 .orElseThrow(() -> new RuntimeException("Tree not found"));
 
-        // Verify node exists
-        SkillNodeEntity node = skillNodeRepo.findById(nodeId)
-                .orElseThrow(() -> new RuntimeException("Node not found"));
+        SkillNodeSnapshot node = tree.findNode(nodeId);
+        if (node == null) {
+            throw new RuntimeException("Node not found");
+        }
 
         // Verify enrollment
         UserSkillTreeEntity enrollment = userSkillTreeRepo.findByUserIdAndTreeId(userId, treeId)
                 .orElseThrow(() -> new RuntimeException("User not enrolled in this tree"));
 
-        // Check if already completed
-        UserNodeProgressEntity progress = userNodeProgressRepo
-                .findByUserIdAndNodeId(userId, nodeId)
-                .orElse(null);
-
-        if (progress != null && progress.getCompleted()) {
-            throw new RuntimeException("Node already completed");
-        }
+        BitSet completed = completionStore.getCompleted(tree, enrollment);
+        int nodeIndex = tree.indexOf(nodeId);
 
-        // Create or update progress
-        if (progress == null) {
-            progress = new UserNodeProgressEntity();
-            progress.setUserId(userId);
-            progress.setNodeId(nodeId);
-            progress.setSkillNode(node);
+        // Only the call that flips the progress row to completed goes on to award XP;
+        // a concurrent duplicate waits on that row and then sees it completed
+        if (completed.get(nodeIndex)
+                || userNodeProgressRepo.markCompleted(userId, nodeId, LocalDateTime.now()) == 0) {
+            logger.debug("Node {} already completed by user {}", nodeId, userId);
+            return alreadyCompletedResponse(enrollment);
         }
-
-        progress.setCompleted(true);
-        progress.setCompletionDate(LocalDateTime.now());
-        userNodeProgressRepo.save(progress);
-
-        // Award XP to user profile
-        UserProfileEntity profile = userProfileRepo.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("User profile not found"));
+        completed.set(nodeIndex);
+        eventPublisher.publishEvent(new NodeCompletedEvent(userId, treeId, nodeId));
 
         int xpEarned = node.getXpReward() != null ? node.getXpReward() : 10;
-        profile.setTotalXp(profile.getTotalXp() + xpEarned);
-        profile.setCurrentXp(profile.getCurrentXp() + xpEarned);
 
-        // Check for level up
-        boolean leveledUp = false;
-        Integer newLevel = profile.getLevel();
-        
-        while (profile.getCurrentXp() >= profile.getXpToNextLevel()) {
-            profile.setCurrentXp(profile.getCurrentXp() - profile.getXpToNextLevel());
-            profile.setLevel(profile.getLevel() + 1);
-            profile.setXpToNextLevel((int) (profile.getXpToNextLevel() * 1.5)); // 50% more XP per level
-            leveledUp = true;
-            newLevel = profile.getLevel();
-        }
+        // Counters are incremented in SQL so concurrent completions cannot lose updates. The update
+        // holds the row lock until commit, so the percentage read back includes every earlier completion
+        userSkillTreeRepo.incrementProgress(userId, treeId, xpEarned, tree.nodeCount(),
+                EnrollmentStatus.COMPLETED, LocalDateTime.now());
+        BigDecimal updatedProgress = userSkillTreeRepo.findProgressPercentage(userId, treeId)
+                .orElse(BigDecimal.ZERO);
 
-        userProfileRepo.save(profile);
+        // XP is applied to the profile by the background writer; the response shows the projected level
+        xpEventService.enqueue(userId, XpSource.NODE_COMPLETED, nodeId, xpEarned);
 
-        // Update enrollment progress
-        enrollment.setNodesCompleted(enrollment.getNodesCompleted() + 1);
-        enrollment.setXpEarned(enrollment.getXpEarned() + xpEarned);
-        
-        // Calculate new progress percentage
-        List<SkillNodeEntity> allNodes = skillNodeRepo.findByTreeId(treeId);
-        double newProgress = (enrollment.getNodesCompleted() * 100.0) / allNodes.size();
-        enrollment.setProgressPercentage(BigDecimal.valueOf(newProgress));
-        
-        // Check if tree is completed
-        if (enrollment.getNodesCompleted().equals(allNodes.size())) {
-            enrollment.setStatus(UserSkillTreeEntity.EnrollmentStatus.COMPLETED);
-        }
-        
-        userSkillTreeRepo.save(enrollment);
+        // Profile and pending XP come from one statement; the pending sum includes the event just inserted
+        ProfileXpSnapshot xp = userProfileRepo.findXpSnapshot(userId)
+                .orElseThrow(() -> new RuntimeException("User profile not found"));
+        long pendingXp = xp.pendingXp();
+        int newLevel = levelCurve.levelAfter(xp.level(), xp.currentXp(), pendingXp);
+        boolean leveledUp = newLevel > levelCurve.levelAfter(xp.level(), xp.currentXp(), pendingXp - xpEarned);
+
+        // Only dependents of the completed node can change state
+        List<Long> unlockedNodes = tree.nodeIds(tree.getGraph().newlyUnlocked(nodeIndex, completed));
 
         return CompleteNodeResponseDTO.builder()
                 .success(true)
                 .xpEarned(xpEarned)
                 .newLevel(newLevel)
                 .leveledUp(leveledUp)
-                .updatedProgress(newProgress)
-                .unlockedNodes(new ArrayList<>())
+                .updatedProgress(updatedProgress.doubleValue())
+                .unlockedNodes(unlockedNodes)
                 .build();
     }
 
@@ -351,95 +320,55 @@ public class SkillTreeService {
      */
     @Transactional
     public void startNode(Long treeId, Long nodeId, Long userId) {
-        // Verify enrollment
-        UserSkillTreeEntity enrollment = userSkillTreeRepo.findByUserIdAndTreeId(userId, treeId)
-                .orElseThrow(() -> new RuntimeException("User not enrolled in this tree"));
-
-        // Check if progress already exists
-        UserNodeProgressEntity progress = userNodeProgressRepo
-                .findByUserIdAndNodeId(userId, nodeId)
-                .orElse(null);
-
-        if (progress == null) {
-            // Create new progress entry
-            SkillNodeEntity node = skillNodeRepo.findById(nodeId)
-                    .orElseThrow(() -> new RuntimeException("Node not found"));
-
-            progress = new UserNodeProgressEntity();
-            progress.setUserId(userId);
-            progress.setNodeId(nodeId);
-            progress.setSkillNode(node);
-            progress.setCompleted(false);
-            
-            userNodeProgressRepo.save(progress);
+        // Verify enrollment and update last accessed time
+        if (userSkillTreeRepo.touchLastAccessed(userId, treeId, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("User not enrolled in this tree");
         }
 
-        // Update last accessed time
-        enrollment.setLastAccessed(LocalDateTime.now());
-        userSkillTreeRepo.save(enrollment);
+        catalogCache.getNode(nodeId)
+                .orElseThrow(() -> new RuntimeException("Node not found"));
+
+        // Create progress entry unless one already exists
+        userNodeProgressRepo.insertStartedIfAbsent(userId, nodeId);
     }
 
     /**
-     * Determine if a node should be locked based on prerequisites
+     * Response for a completion that was already recorded
      */
-    private boolean determineIfNodeIsLocked(
-            SkillNodeEntity node, 
-            List<UserNodeProgressEntity> progressList,
-            List<SkillNodeEntity> allNodes
-    ) {
-        // First node is always unlocked
-        if (node.getOrderIndex() == 0) {
-            return false;
-        }
-
-        // If node has isLocked flag set, respect it
-        if (node.getIsLocked() != null && node.getIsLocked()) {
-            return true;
-        }
-
-        // Check if previous node is completed (simple linear progression)
-        for (SkillNodeEntity prevNode : allNodes) {
-            if (prevNode.getOrderIndex() == node.getOrderIndex() - 1) {
-                // Check if this previous node is completed
-                boolean prevCompleted = progressList.stream()
-                        .anyMatch(p -> p.getNodeId().equals(prevNode.getNodeId()) && p.getCompleted());
-                
-                return !prevCompleted; // Locked if previous not completed
-            }
-        }
+    private CompleteNodeResponseDTO alreadyCompletedResponse(UserSkillTreeEntity enrollment) {
+        Integer level = userProfileRepo.findByUserId(enrollment.getUserId())
+                .map(UserProfileEntity::getLevel)
+                .orElse(null);
 
-        // Default: unlocked
-        return false;
+        return CompleteNodeResponseDTO.builder()
+                .success(true)
+                .xpEarned(0)
+                .newLevel(level)
+                .leveledUp(false)
+                .updatedProgress(enrollment.getProgressPercentage().doubleValue())
+                .unlockedNodes(new ArrayList<>())
+                .build();
     }
 
     @Transactional(readOnly = true)
 public List<SkillTreeSummaryDTO> getAllSkillTreesForUser(Long userId) {
-    List<SkillTreeEntity> allTrees = skillTreeRepo.findAll();
+    // Trees (with precomputed XP totals) from the catalog cache, plus the user's enrollments
+    List<SkillTreeSnapshot> catalog = catalogCache.getAllTrees();
+    Set<Long> enrolledTreeIds = new HashSet<>(userSkillTreeRepo.findTreeIdsByUserId(userId));
     
-    return allTrees.stream()
-            .map(tree -> {
-                // Check if user is enrolled
-                boolean isEnrolled = userSkillTreeRepo.existsByUserIdAndTreeId(userId, tree.getTreeId());
-                
-                // Calculate total XP for this tree
-                List<SkillNodeEntity> nodes = skillNodeRepo.findByTreeId(tree.getTreeId());
-                int totalXp = nodes.stream()
-                        .mapToInt(node -> node.getXpReward() != null ? node.getXpReward() : 0)
-                        .sum();
-                
-                return SkillTreeSummaryDTO.builder()
-                        .treeId(tree.getTreeId())
-                        .title(tree.getTitle())
-                        .description(tree.getDescription())
-                        .category(tree.getCategory())
-                        .difficulty(tree.getDifficulty() != null ? tree.getDifficulty().name() : "BEGINNER")
-                        .thumbnailUrl(tree.getThumbnailUrl())
-                        .totalNodes(tree.getTotalNodes() != null ? tree.getTotalNodes() : nodes.size())
-                        .estimatedHours(tree.getEstimatedHours() != null ? tree.getEstimatedHours() : 10)
-                        .totalXp(totalXp)
-                        .isEnrolled(isEnrolled)
-                        .build();
-            })
+    return catalog.stream()
+            .map(tree -> SkillTreeSummaryDTO.builder()
+                    .treeId(tree.getTreeId())
+                    .title(tree.getTitle())
+                    .description(tree.getDescription())
+                    .category(tree.getCategory())
+                    .difficulty(tree.getDifficulty() != null ? tree.getDifficulty().name() : "BEGINNER")
+                    .thumbnailUrl(tree.getThumbnailUrl())
+                    .totalNodes(tree.getTotalNodes() != null ? tree.getTotalNodes() : tree.nodeCount())
+                    .estimatedHours(tree.getEstimatedHours() != null ? tree.getEstimatedHours() : 10)
+                    .totalXp(tree.getTotalXp())
+                    .isEnrolled(enrolledTreeIds.contains(tree.getTreeId()))
+                    .build())
             .collect(Collectors.toList());
 }
 
@@ -453,7 +382,7 @@ public EnrollTreeResponseDTO enrollUserInTree(Long userId, Long treeId) {
             .orElseThrow(() -> new RuntimeException("User not found"));
     
     // Check if tree exists
-    SkillTreeEntity tree = skillTreeRepo.findById(treeId)
+    catalogCache.getTree(treeId)
             .orElseThrow(() -> new RuntimeException("Skill tree not found"));
     
     // Check if already enrolled
@@ -465,7 +394,7 @@ public EnrollTreeResponseDTO enrollUserInTree(Long userId, Long treeId) {
     UserSkillTreeEntity enrollment = new UserSkillTreeEntity();
     enrollment.setUserId(userId);
     enrollment.setTreeId(treeId);
-    enrollment.setSkillTree(tree);
+    enrollment.setSkillTree(skillTreeRepo.getReferenceById(treeId));
     enrollment.setEnrollmentDate(LocalDateTime.now());
     enrollment.setLastAccessed(LocalDateTime.now());
     enrollment.setStatus(UserSkillTreeEntity.EnrollmentStatus.ACTIVE);
@@ -473,7 +402,14 @@ public EnrollTreeResponseDTO enrollUserInTree(Long userId, Long treeId) {
     enrollment.setNodesCompleted(0);
     enrollment.setXpEarned(0);
     
-    userSkillTreeRepo.save(enrollment);
+    // A plain insert: the enrollment starts at version 0 and all later counter changes
+    // are SQL updates, so this row is never saved over a stale copy
+    try {
+        userSkillTreeRepo.saveAndFlush(enrollment);
+    } catch (DataIntegrityViolationException e) {
+        // A concurrent request enrolled first (unique user_id, tree_id)
+        throw new RuntimeException("Already enrolled in this skill tree");
+    }
     
     return EnrollTreeResponseDTO.builder()
             .enrollmentId(enrollment.getEnrollmentId())
@@ -0,0 +1,136 @@
+package com.skillsphere.backend.service;
+
+import com.skillsphere.backend.cache.BoundedCache;
+import com.skillsphere.backend.cache.CacheMetrics;
+import com.skillsphere.backend.entity.UserEntity;
+import com.skillsphere.backend.entity.UserRole;
+import com.skillsphere.backend.repo.UserRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Display names and roles of users, for mappers that show who wrote or owns something.
+ *
+ * Lookups are served from a bounded in-memory cache; list mappers resolve all ids
+ * of a page up front with one findAllById, so rows never trigger a query each.
+ */
+@Service
+public class UserDirectoryService {
+
+    private static final Logger logger = LogManager.getLogger(UserDirectoryService.class);
+
+    // Author of system messages in study rooms
+    public static final long SYSTEM_USER_ID = 0L;
+
+    private static final UserSummary SYSTEM = new UserSummary(SYSTEM_USER_ID, "System", "SYSTEM");
+
+    private final UserRepo userRepo;
+    private final BoundedCache<Long, UserSummary> users;
+
+    public UserDirectoryService(
+            UserRepo userRepo,
+            MeterRegistry meterRegistry,
+            @Value("${skillsphere.user-directory.max-entries:20000}") int maxEntries,
+            @Value("${skillsphere.user-directory.ttl-minutes:30}") long ttlMinutes
+    ) {
+        this.userRepo = userRepo;
+        this.users = new BoundedCache<>(maxEntries, Duration.ofMinutes(ttlMinutes));
+
+        CacheMetrics.bind(meterRegistry, "userDirectory", users);
+    }
+
+    /**
+     * Get one user, loading it on a miss
+     * Never null: a missing or unknown user gets a placeholder
+     */
+    public UserSummary get(Long userId) {
+        if (userId == null) {
+            return UserSummary.unknown(null);
+        }
+        return getAll(Set.of(userId)).get(userId);
+    }
+
+    /**
+     * Get several users; all misses are loaded with a single query
+     * Every requested non-null id is present in the result (unknown users get a placeholder);
+     * null ids are skipped, so callers look those up with {@link UserSummary#of}
+     */
+    public Map<Long, UserSummary> getAll(Collection<Long> userIds) {
+        Map<Long, UserSummary> result = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+
+        for (Long userId : userIds) {
+            if (userId == null) {
+                continue;
+            }
+            if (userId == SYSTEM_USER_ID) {
+                result.put(userId, SYSTEM);
+                continue;
+            }
+            UserSummary cached = users.getIfPresent(userId);
+            if (cached != null) {
+                result.put(userId, cached);
+            } else {
+                missing.add(userId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (UserEntity user : userRepo.findAllById(missing)) {
+                UserSummary summary = new UserSummary(
+                        user.getUserId(),
+                        user.getUsername(),
+                        Objects.requireNonNullElse(user.getRole(), UserRole.STUDENT).name());
+                users.put(user.getUserId(), summary);
+                result.put(user.getUserId(), summary);
+                missing.remove(user.getUserId());
+            }
+            if (!missing.isEmpty()) {
+                logger.debug("Users not found: {}", missing);
+                missing.forEach(userId -> result.put(userId, UserSummary.unknown(userId)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Display name of a user
+     */
+    public String usernameOf(Long userId) {
+        return get(userId).username();
+    }
+
+    /**
+     * Drop a cached user (e.g. after a rename)
+     */
+    public void evict(Long userId) {
+        users.invalidate(userId);
+    }
+
+    public record UserSummary(Long userId, String username, String role) {
+
+        /**
+         * Entry for a user in a getAll result, or a placeholder if it has none
+         */
+        public static UserSummary of(Map<Long, UserSummary> users, Long userId) {
+            UserSummary user = userId != null ? users.get(userId) : null;
+            return user != null ? user : unknown(userId);
+        }
+
+        static UserSummary unknown(Long userId) {
+            String username = userId != null ? "User" + userId : "Unknown user";
+            return new UserSummary(userId, username, UserRole.STUDENT.name());
+        }
+    }
+}
@@ -11,6 +11,8 @@ import org.apache.logging.log4j.Logger;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
 @Service
 @RequiredArgsConstructor
 public class UserProfileService {
@@ -19,6 +21,7 @@ public class UserProfileService {
     
     private final UserProfileRepo userProfileRepo;
     private final UserProfileMapper userProfileMapper;
+    private final LevelCurve levelCurve;
     
     /**
      * Get user profile by user ID
@@ -51,8 +54,8 @@ public class UserProfileService {
         profile.setLevel(1);
         profile.setTotalXp(0);
         profile.setCurrentXp(0);
-        profile.setXpToNextLevel(100);
-        profile.setUserTitle("Novice Learner");
+        profile.setXpToNextLevel(levelCurve.xpForNextLevel(1));
+        profile.setUserTitle(levelCurve.titleForLevel(1));
         profile.setLearningStreak(0);
         profile.setTotalTimeSpent(0);
         profile.setAchievementsCount(0);
@@ -64,66 +67,27 @@ public class UserProfileService {
     }
     
     /**
-     * Award XP to user and handle level-ups
+     * Add XP to a profile and apply level-ups.
+     * Only the XP writer calls this (XP is awarded through XpEventService), so there is a single level curve.
+     * @return number of levels gained
      */
-    @Transactional
-    public UserProfileResponseDTO awardXp(Long userId, Integer xpAmount) {
-        logger.info("Awarding {} XP to user: {}", xpAmount, userId);
+    public int applyXp(UserProfileEntity profile, int xpAmount) {
+        int startLevel = profile.getLevel();
         
-        UserProfileEntity profile = userProfileRepo.findByUserId(userId)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Profile not found for user: " + userId));
+        // Position on the curve before and after the grant, in O(1)
+        long totalOnCurve = levelCurve.xpToReachLevel(startLevel) + profile.getCurrentXp() + xpAmount;
+        int newLevel = Math.max(startLevel, levelCurve.levelForXp(totalOnCurve));
         
-        // Add XP
         profile.setTotalXp(profile.getTotalXp() + xpAmount);
-        profile.setCurrentXp(profile.getCurrentXp() + xpAmount);
+        profile.setCurrentXp((int) (totalOnCurve - levelCurve.xpToReachLevel(newLevel)));
+        profile.setXpToNextLevel(levelCurve.xpForNextLevel(newLevel));
         
-        // Check for level up
-        while (profile.getCurrentXp() >= profile.getXpToNextLevel()) {
-            levelUp(profile);
-        }
-        
-        UserProfileEntity updated = userProfileRepo.save(profile);
-        return userProfileMapper.toDto(updated);
-    }
-    
-    /**
-     * Handle level-up logic
-     */
-    private void levelUp(UserProfileEntity profile) {
-        profile.setCurrentXp(profile.getCurrentXp() - profile.getXpToNextLevel());
-        profile.setLevel(profile.getLevel() + 1);
-        
-        // XP required increases by 50 per level (100, 150, 200, 250...)
-        profile.setXpToNextLevel(100 + (profile.getLevel() - 1) * 50);
-        
-        // Update title based on level
-        updateTitle(profile);
-        
-        logger.info("User {} leveled up to level {}!", profile.getUserId(), profile.getLevel());
-    }
-    
-    /**
-     * Update user title based on level
-     */
-    private void updateTitle(UserProfileEntity profile) {
-        Integer level = profile.getLevel();
-        
-        if (level >= 50) {
-            profile.setUserTitle("Master Builder");
-        } else if (level >= 40) {
-            profile.setUserTitle("Expert Coder");
-        } else if (level >= 30) {
-            profile.setUserTitle("Senior Developer");
-        } else if (level >= 20) {
-            profile.setUserTitle("Skilled Craftsman");
-        } else if (level >= 10) {
-            profile.setUserTitle("Aspiring Developer");
-        } else if (level >= 5) {
-            profile.setUserTitle("Eager Learner");
-        } else {
-            profile.setUserTitle("Novice Learner");
+        if (newLevel > startLevel) {
+            profile.setLevel(newLevel);
+            profile.setUserTitle(levelCurve.titleForLevel(newLevel));
+            logger.info("User {} leveled up to level {}!", profile.getUserId(), newLevel);
         }
+        return newLevel - startLevel;
     }
     
     /**
@@ -131,12 +95,9 @@ public class UserProfileService {
      */
     @Transactional
     public void updateStreak(Long userId, Integer streakDays) {
-        UserProfileEntity profile = userProfileRepo.findByUserId(userId)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Profile not found for user: " + userId));
-        
-        profile.setLearningStreak(streakDays);
-        userProfileRepo.save(profile);
+        if (userProfileRepo.updateStreak(userId, streakDays, LocalDateTime.now()) == 0) {
+            throw new EntityNotFoundException("Profile not found for user: " + userId);
+        }
     }
     
     /**
@@ -144,11 +105,8 @@ public class UserProfileService {
      */
     @Transactional
     public void incrementAchievements(Long userId) {
-        UserProfileEntity profile = userProfileRepo.findByUserId(userId)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Profile not found for user: " + userId));
-        
-        profile.setAchievementsCount(profile.getAchievementsCount() + 1);
-        userProfileRepo.save(profile);
+        if (userProfileRepo.incrementAchievements(userId, LocalDateTime.now()) == 0) {
+            throw new EntityNotFoundException("Profile not found for user: " + userId);
+        }
     }
 }
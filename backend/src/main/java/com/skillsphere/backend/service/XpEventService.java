@@ -0,0 +1,115 @@
+package com.skillsphere.backend.service;
+
+import com.skillsphere.backend.entity.UserProfileEntity;
+import com.skillsphere.backend.entity.XpEventEntity;
+import com.skillsphere.backend.entity.XpEventEntity.XpSource;
+import com.skillsphere.backend.repo.UserProfileRepo;
+import com.skillsphere.backend.repo.XpEventRepo;
+import lombok.RequiredArgsConstructor;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * XP awards go through the xp_events outbox: request paths only enqueue an event,
+ * and a scheduled writer applies them to profiles in batches, summing the XP per user
+ * so each profile is read and written once per batch. Events of a user without a
+ * profile stay pending and are applied once the profile exists.
+ */
+@Service
+@RequiredArgsConstructor
+public class XpEventService {
+    
+    private static final Logger logger = LogManager.getLogger(XpEventService.class);
+    
+    private final XpEventRepo xpEventRepo;
+    private final UserProfileRepo userProfileRepo;
+    private final UserProfileService userProfileService;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${skillsphere.xp-events.batch-size:500}")
+    private int batchSize;
+    
+    /**
+     * Record an XP award in the caller's transaction
+     * @return false if the same award was already recorded
+     */
+    @Transactional
+    public boolean enqueue(Long userId, XpSource source, Long sourceId, Integer xpAmount) {
+        if (xpAmount == null || xpAmount <= 0) {
+            return false;
+        }
+        int inserted = xpEventRepo.insertIfAbsent(userId, source.name(), sourceId, xpAmount, LocalDateTime.now());
+        if (inserted == 0) {
+            logger.debug("XP for {} {} already recorded for user {}", source, sourceId, userId);
+        }
+        return inserted > 0;
+    }
+    
+    /**
+     * Apply pending XP events until the outbox is drained
+     */
+    @Scheduled(fixedDelayString = "${skillsphere.xp-events.flush-interval-ms:1000}")
+    public void processPending() {
+        try {
+            Integer applied;
+            do {
+                applied = transactionTemplate.execute(status -> applyBatch());
+            } while (applied != null && applied == batchSize);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Another writer instance updated one of the profiles; the batch rolled back
+            // and its events are claimed again on the next run
+            logger.debug("XP batch hit a concurrent profile update, retrying next run: {}", e.getMessage());
+        } catch (Exception e) {
+            // Events stay unprocessed and are retried on the next run
+            logger.warn("Failed to apply XP events: {}", e.getMessage());
+        }
+    }
+    
+    private int applyBatch() {
+        List<XpEventEntity> events = xpEventRepo.claimPending(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        
+        // Coalesce per user
+        Map<Long, Integer> xpByUser = events.stream()
+                .collect(Collectors.groupingBy(XpEventEntity::getUserId,
+                        Collectors.summingInt(XpEventEntity::getXpAmount)));
+        
+        Map<Long, UserProfileEntity> profiles = userProfileRepo.findByUserIdIn(xpByUser.keySet()).stream()
+                .collect(Collectors.toMap(UserProfileEntity::getUserId, Function.identity()));
+        
+        xpByUser.forEach((userId, xp) -> {
+            UserProfileEntity profile = profiles.get(userId);
+            if (profile == null) {
+                // Deleted since the claim; its events stay pending instead of losing the XP
+                logger.warn("Keeping {} XP for user {} pending: profile not found", xp, userId);
+                return;
+            }
+            userProfileService.applyXp(profile, xp);
+        });
+        
+        List<Long> appliedEventIds = events.stream()
+                .filter(event -> profiles.containsKey(event.getUserId()))
+                .map(XpEventEntity::getEventId)
+                .toList();
+        if (!appliedEventIds.isEmpty()) {
+            xpEventRepo.markProcessed(appliedEventIds, LocalDateTime.now());
+        }
+        
+        logger.debug("Applied {} XP event(s) for {} user(s)", appliedEventIds.size(), xpByUser.size());
+        return appliedEventIds.size();
+    }
+}
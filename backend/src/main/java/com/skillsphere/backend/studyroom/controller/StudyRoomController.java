@@ -3,12 +3,17 @@ package com.skillsphere.backend.studyroom.controller;
 import com.skillsphere.backend.studyroom.dto.*;
 import com.skillsphere.backend.studyroom.entity.RoomType;
 import com.skillsphere.backend.studyroom.service.StudyRoomService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -150,13 +155,37 @@ public class StudyRoomController {
     /**
      * GET /api/study-rooms/{id}/messages
      * Get all messages in a room
+     *
+     * Polling: ?afterId= returns messages with a higher id. The response carries an
+     * ETag of the room's latest message id and the viewer; sending it back as
+     * If-None-Match gets a 304 without any database access while nothing new was
+     * posted. Weak validators, lists of tags and * are matched as well. The body
+     * differs per viewer (isOwn/canDelete), so it is marked private.
      */
     @GetMapping("/{id}/messages")
     public ResponseEntity<List<RoomMessageDTO>> getRoomMessages(
             @PathVariable Long id,
             @RequestParam(required = false) String since,
-            @RequestHeader(value = "X-User-Id", required = false) Long userId
+            @RequestParam(required = false) Long afterId,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId,
+            WebRequest webRequest,
+            HttpServletResponse response
     ) {
+        if (afterId != null) {
+            String etag = "\"" + id + "-" + studyRoomService.getLatestMessageId(id) + "-"
+                    + (userId != null ? userId : "anonymous") + "\"";
+            // Set before the 304 check so both answers carry them
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+            response.setHeader(HttpHeaders.VARY, "X-User-Id");
+            if (webRequest.checkNotModified(etag)) {
+                // 304 and ETag are already set on the response
+                return null;
+            }
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .body(studyRoomService.getMessagesAfter(id, afterId, userId));
+        }
+
         log.info("GET /api/study-rooms/{}/messages - since: {}, userId: {}", id, since, userId);
 
         List<RoomMessageDTO> messages;
@@ -173,6 +202,38 @@ public class StudyRoomController {
         return ResponseEntity.ok(messages);
     }
 
+    /**
+     * GET /api/study-rooms/{id}/messages/poll?afterId=
+     * Long-poll: returns messages with a higher id as soon as there are any,
+     * or an empty list after the long-poll timeout (for clients without WebSocket)
+     */
+    @GetMapping("/{id}/messages/poll")
+    public DeferredResult<List<RoomMessageDTO>> pollMessages(
+            @PathVariable Long id,
+            @RequestParam Long afterId,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId
+    ) {
+        return studyRoomService.waitForMessages(id, afterId, userId);
+    }
+
+    /**
+     * GET /api/study-rooms/{id}/messages/page
+     * Get message history one page at a time (newest page when no cursor is given)
+     * Use olderCursor as ?before= to scroll back and newerCursor as ?after= to catch up
+     */
+    @GetMapping("/{id}/messages/page")
+    public ResponseEntity<RoomMessagePageDTO> getMessagePage(
+            @PathVariable Long id,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = "X-User-Id", required = false) Long userId
+    ) {
+        log.info("GET /api/study-rooms/{}/messages/page - before: {}, after: {}, limit: {}", id, before, after, limit);
+        RoomMessagePageDTO page = studyRoomService.getMessagePage(id, before, after, limit, userId);
+        return ResponseEntity.ok(page);
+    }
+
     /**
      * POST /api/study-rooms/{id}/messages
      * Post a message in a room
@@ -1,54 +1,91 @@
 package com.skillsphere.backend.studyroom.controller;
 
+import com.skillsphere.backend.studyroom.dto.PostMessageRequestDTO;
 import com.skillsphere.backend.studyroom.dto.RoomMessageDTO;
+import com.skillsphere.backend.studyroom.entity.MessageType;
+import com.skillsphere.backend.studyroom.service.SessionUserResolver;
+import com.skillsphere.backend.studyroom.service.StudyRoomService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.stereotype.Controller;
 
+import java.security.Principal;
+
 @Controller
+@RequiredArgsConstructor
 @Slf4j
 public class WebSocketController {
 
+    private static final String ERROR_QUEUE = "/queue/errors";
+
+    private final StudyRoomService studyRoomService;
+    private final SessionUserResolver sessionUserResolver;
+    private final SimpMessagingTemplate messagingTemplate;
+
     /**
-     * Receive message from client and broadcast to all room subscribers
+     * Store a chat message and broadcast it to all room subscribers with its id
      * Client sends to: /app/room/{roomId}/message
      * Server broadcasts to: /topic/room/{roomId}
+     * Errors go to: /user/queue/errors
+     *
+     * The sender is the authenticated user of the WebSocket session (JWT cookie on
+     * the handshake), never the userId in the payload. Copies relayed by clients
+     * after a REST post already carry an id; those were broadcast when they were
+     * saved and are dropped here.
      */
     @MessageMapping("/room/{roomId}/message")
-    @SendTo("/topic/room/{roomId}")
-    public RoomMessageDTO sendMessage(
+    public void sendMessage(
             @DestinationVariable Long roomId,
-            RoomMessageDTO message
+            @Payload RoomMessageDTO message,
+            Principal principal,
+            SimpMessageHeaderAccessor headers
     ) {
-        log.info("Broadcasting message to room {}: {}", roomId, message.getMessage());
-        return message;
+        if (message.getId() != null) {
+            log.debug("Ignoring relayed message {} for room {}, already broadcast by the server",
+                    message.getId(), roomId);
+            return;
+        }
+
+        Long userId = resolveUserId(principal, headers);
+
+        PostMessageRequestDTO request = PostMessageRequestDTO.builder()
+                .message(message.getMessage())
+                .messageType(message.getMessageType() != null ? message.getMessageType() : MessageType.TEXT)
+                .build();
+
+        studyRoomService.submitMessage(roomId, request, userId)
+                .whenComplete((saved, error) -> {
+                    if (error != null) {
+                        log.warn("Failed to store message from user {} in room {}: {}",
+                                userId, roomId, error.getMessage());
+                        messagingTemplate.convertAndSendToUser(principal.getName(), ERROR_QUEUE,
+                                "Message could not be sent, please try again");
+                    }
+                });
     }
 
     /**
-     * Broadcast user joined event
+     * Report rejected messages (not authenticated, not a member, invalid) to the sender only
      */
-    @MessageMapping("/room/{roomId}/join")
-    @SendTo("/topic/room/{roomId}")
-    public RoomMessageDTO userJoined(
-            @DestinationVariable Long roomId,
-            RoomMessageDTO message
-    ) {
-        log.info("User joined room {}: {}", roomId, message.getUsername());
-        return message;
+    @MessageExceptionHandler
+    @SendToUser(destinations = ERROR_QUEUE, broadcast = false)
+    public String handleException(RuntimeException e) {
+        log.warn("Rejected WebSocket message: {}", e.getMessage());
+        return e.getMessage();
     }
 
-    /**
-     * Broadcast user left event
-     */
-    @MessageMapping("/room/{roomId}/leave")
-    @SendTo("/topic/room/{roomId}")
-    public RoomMessageDTO userLeft(
-            @DestinationVariable Long roomId,
-            RoomMessageDTO message
-    ) {
-        log.info("User left room {}: {}", roomId, message.getUsername());
-        return message;
+    private Long resolveUserId(Principal principal, SimpMessageHeaderAccessor headers) {
+        Long userId = sessionUserResolver.resolve(principal, headers.getSessionAttributes());
+        if (userId == null) {
+            throw new RuntimeException("You must be logged in to post messages");
+        }
+        return userId;
     }
 }
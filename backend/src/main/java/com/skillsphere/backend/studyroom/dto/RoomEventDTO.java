@@ -0,0 +1,31 @@
+package com.skillsphere.backend.studyroom.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Room event pushed to /topic/room/{roomId}/events
+ * Chat messages themselves go to /topic/room/{roomId} as RoomMessageDTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomEventDTO {
+    private Type type;
+    private Long roomId;
+    private Long userId;      // Member who joined/left, or who deleted the message
+    private Long messageId;   // Set for MESSAGE_DELETED
+    private LocalDateTime timestamp;
+
+    public enum Type {
+        MEMBER_JOINED,
+        MEMBER_LEFT,
+        MESSAGE_DELETED,
+        ROOM_CLOSED
+    }
+}
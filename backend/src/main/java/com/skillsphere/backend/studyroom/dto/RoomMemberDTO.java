@@ -29,6 +29,7 @@ public class RoomMemberDTO {
     
     // Activity
     private Boolean isActive;
+    private Boolean isOnline;        // Connected to the room over WebSocket right now
     private Integer totalStudyTime;  // Minutes
     
     // Timestamps
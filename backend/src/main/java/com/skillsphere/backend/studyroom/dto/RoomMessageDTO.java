@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
  * Message info for message board
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class RoomMessageDTO {
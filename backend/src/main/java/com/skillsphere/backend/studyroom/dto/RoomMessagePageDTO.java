@@ -0,0 +1,22 @@
+package com.skillsphere.backend.studyroom.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of room message history, oldest message first
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomMessagePageDTO {
+    private List<RoomMessageDTO> messages;
+    private String olderCursor;  // Pass as ?before= to load the previous page
+    private String newerCursor;  // Pass as ?after= to load the next page
+    private Boolean hasMore;     // More messages exist in the paging direction
+}
@@ -0,0 +1,23 @@
+package com.skillsphere.backend.studyroom.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Presence changes of a room since the previous update, pushed to /topic/room/{roomId}/presence
+ * Joins and leaves within one interval are coalesced (joining and leaving again cancels out)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomPresenceDTO {
+    private Long roomId;
+    private Set<Long> joinedUserIds;  // Came online
+    private Set<Long> leftUserIds;    // Went offline
+    private Integer onlineCount;      // Users online after these changes
+}
@@ -21,6 +21,7 @@ public class StudyRoomDetailDTO {
     
     // Additional details
     private List<RoomMemberDTO> activeMembers;  // Current participants
+    private Integer onlineCount;                // Users connected to the room right now
     private List<RoomMessageDTO> recentMessages; // Last N messages
     
     // User-specific info (if logged in)
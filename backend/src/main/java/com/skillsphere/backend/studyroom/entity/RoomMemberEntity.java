@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
@@ -14,6 +15,7 @@ import java.time.LocalDateTime;
     name = "room_members",
     uniqueConstraints = @UniqueConstraint(columnNames = {"room_id", "user_id"})
 )
+@DynamicUpdate  // Only write changed columns so membership saves never overwrite flushed study time
 @Data
 @Builder
 @NoArgsConstructor
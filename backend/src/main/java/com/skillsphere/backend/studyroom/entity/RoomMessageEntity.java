@@ -11,7 +11,10 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "room_messages")
+@Table(
+    name = "room_messages",
+    indexes = @Index(name = "idx_room_messages_room_created_id", columnList = "room_id, created_at, id")
+)
 @Data
 @Builder
 @NoArgsConstructor
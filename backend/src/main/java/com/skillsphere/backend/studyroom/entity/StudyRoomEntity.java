@@ -6,12 +6,17 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "study_rooms")
+@Table(
+    name = "study_rooms",
+    indexes = @Index(name = "idx_study_rooms_status_created", columnList = "status, created_at")
+)
+@DynamicUpdate  // Only write changed columns so entity saves never overwrite the live counters
 @Data
 @Builder
 @NoArgsConstructor
@@ -57,6 +62,15 @@ public class StudyRoomEntity {
     // CAPACITY
     private Integer maxParticipants;  // null = unlimited
 
+    // LIVE COUNTERS (updated atomically by StudyRoomService, drift fixed by RoomCounterReconciler)
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer currentParticipants = 0;  // Active members
+
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    @Builder.Default
+    private Long messageCount = 0L;  // Non-deleted messages, including system messages
+
     // SCHEDULING (for TEACHING rooms)
     private LocalDateTime scheduledStart;
     private LocalDateTime scheduledEnd;
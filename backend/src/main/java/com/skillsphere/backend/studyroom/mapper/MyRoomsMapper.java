@@ -12,6 +12,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Component
@@ -51,19 +53,14 @@ public class MyRoomsMapper {
 
         // Get rooms created by user
         List<RoomMemberEntity> createdMemberships = roomMemberRepo.findRoomsCreatedByUser(userId);
-        List<StudyRoomEntity> createdEntities = createdMemberships.stream()
-                .map(m -> studyRoomRepo.findById(m.getRoomId()).orElse(null))
-                .filter(r -> r != null)
-                .collect(Collectors.toList());
+        List<StudyRoomEntity> createdEntities = findRooms(createdMemberships);
         List<StudyRoomDTO> roomsCreated = studyRoomMapper.toDTOList(createdEntities);
 
         // Get rooms joined by user (excluding created ones)
         List<RoomMemberEntity> joinedMemberships = roomMemberRepo.findByUserIdAndIsActiveTrue(userId);
-        List<StudyRoomEntity> joinedEntities = joinedMemberships.stream()
+        List<StudyRoomEntity> joinedEntities = findRooms(joinedMemberships.stream()
                 .filter(m -> !m.getRole().equals(com.skillsphere.backend.studyroom.entity.RoomMemberRole.CREATOR))
-                .map(m -> studyRoomRepo.findById(m.getRoomId()).orElse(null))
-                .filter(r -> r != null)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
         List<StudyRoomDTO> roomsJoined = studyRoomMapper.toDTOList(joinedEntities);
 
         return MyRoomsDashboardDTO.builder()
@@ -72,4 +69,17 @@ public class MyRoomsMapper {
                 .roomsJoined(roomsJoined)
                 .build();
     }
+
+    /**
+     * Load the rooms of several memberships in one query, keeping membership order
+     */
+    private List<StudyRoomEntity> findRooms(List<RoomMemberEntity> memberships) {
+        List<Long> roomIds = memberships.stream().map(RoomMemberEntity::getRoomId).toList();
+        Map<Long, StudyRoomEntity> roomsById = studyRoomRepo.findAllById(roomIds).stream()
+                .collect(Collectors.toMap(StudyRoomEntity::getId, Function.identity()));
+        return roomIds.stream()
+                .map(roomsById::get)
+                .filter(r -> r != null)
+                .collect(Collectors.toList());
+    }
 }
@@ -1,27 +1,37 @@
 package com.skillsphere.backend.studyroom.mapper;
 
 import com.skillsphere.backend.studyroom.dto.RoomMemberDTO;
+import com.skillsphere.backend.service.UserDirectoryService;
+import com.skillsphere.backend.service.UserDirectoryService.UserSummary;
 import com.skillsphere.backend.studyroom.entity.RoomMemberEntity;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
 public class RoomMemberMapper {
 
+    private final UserDirectoryService userDirectory;
+
     /**
      * Convert entity to DTO
      */
     public RoomMemberDTO toDTO(RoomMemberEntity entity) {
         if (entity == null) return null;
+        return toDTO(entity, userDirectory.get(entity.getUserId()));
+    }
 
+    private RoomMemberDTO toDTO(RoomMemberEntity entity, UserSummary user) {
         return RoomMemberDTO.builder()
                 .id(entity.getId())
                 .roomId(entity.getRoomId())
                 .userId(entity.getUserId())
-                .username("User" + entity.getUserId()) // TODO: Get from User table
-                .userRole("STUDENT") // TODO: Get from User table
+                .username(user.username())
+                .userRole(user.role())
                 .roomRole(entity.getRole())
                 .isActive(entity.getIsActive())
                 .totalStudyTime(entity.getTotalStudyTime())
@@ -35,8 +45,13 @@ public class RoomMemberMapper {
      */
     public List<RoomMemberDTO> toDTOList(List<RoomMemberEntity> entities) {
         if (entities == null) return List.of();
+
+        // All members' names in one lookup
+        Map<Long, UserSummary> users = userDirectory.getAll(
+                entities.stream().map(RoomMemberEntity::getUserId).collect(Collectors.toSet()));
+
         return entities.stream()
-                .map(this::toDTO)
+                .map(entity -> toDTO(entity, UserSummary.of(users, entity.getUserId())))
                 .collect(Collectors.toList());
     }
 
@@ -4,43 +4,52 @@ import com.skillsphere.backend.studyroom.dto.PostMessageRequestDTO;
 import com.skillsphere.backend.studyroom.dto.RoomMessageDTO;
 import com.skillsphere.backend.studyroom.entity.MessageType;
 import com.skillsphere.backend.studyroom.entity.RoomMessageEntity;
-import com.skillsphere.backend.studyroom.repo.RoomMemberRepo;
+import com.skillsphere.backend.service.UserDirectoryService;
+import com.skillsphere.backend.service.UserDirectoryService.UserSummary;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+/**
+ * Message mapping does no per-row I/O: the viewer's creator status is resolved once
+ * per request by the caller and passed in, and authors come from the user directory
+ * (one batch per list)
+ */
 @Component
 @RequiredArgsConstructor
 public class RoomMessageMapper {
 
-    private final RoomMemberRepo roomMemberRepo;
+    private final UserDirectoryService userDirectory;
+
+    /**
+     * Convert entity to a viewer-neutral DTO (canDelete = false)
+     */
+    public RoomMessageDTO toDTO(RoomMessageEntity entity) {
+        return toDTO(entity, null, false);
+    }
 
     /**
      * Convert entity to DTO
      */
-    public RoomMessageDTO toDTO(RoomMessageEntity entity, Long currentUserId) {
+    public RoomMessageDTO toDTO(RoomMessageEntity entity, Long currentUserId, boolean viewerIsCreator) {
         if (entity == null) return null;
+        return toDTO(entity, userDirectory.get(entity.getUserId()), currentUserId, viewerIsCreator);
+    }
+
+    private RoomMessageDTO toDTO(RoomMessageEntity entity, UserSummary author, Long currentUserId, boolean viewerIsCreator) {
 
         // Determine if current user can delete this message
-        boolean canDelete = false;
-        if (currentUserId != null) {
-            // User can delete their own message
-            canDelete = entity.getUserId().equals(currentUserId);
-            
-            // OR if user is creator of the room
-            if (!canDelete) {
-                canDelete = roomMemberRepo.isUserCreatorOfRoom(entity.getRoomId(), currentUserId);
-            }
-        }
+        boolean canDelete = canDelete(entity.getUserId(), currentUserId, viewerIsCreator);
 
         return RoomMessageDTO.builder()
                 .id(entity.getId())
                 .roomId(entity.getRoomId())
                 .userId(entity.getUserId())
-                .username("User" + entity.getUserId()) // TODO: Get from User table
-                .userRole("STUDENT") // TODO: Get from User table
+                .username(author.username())
+                .userRole(author.role())
                 .message(entity.getMessage())
                 .messageType(entity.getMessageType())
                 .isDeleted(entity.getIsDeleted())
@@ -53,13 +62,37 @@ public class RoomMessageMapper {
     /**
      * Convert list of entities to DTOs
      */
-    public List<RoomMessageDTO> toDTOList(List<RoomMessageEntity> entities, Long currentUserId) {
+    public List<RoomMessageDTO> toDTOList(List<RoomMessageEntity> entities, Long currentUserId, boolean viewerIsCreator) {
         if (entities == null) return List.of();
+
+        Map<Long, UserSummary> authors = userDirectory.getAll(
+                entities.stream().map(RoomMessageEntity::getUserId).collect(Collectors.toSet()));
+
         return entities.stream()
-                .map(entity -> toDTO(entity, currentUserId))
+                .map(entity -> toDTO(entity, UserSummary.of(authors, entity.getUserId()), currentUserId, viewerIsCreator))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Copy viewer-neutral messages with canDelete set for the current user
+     */
+    public List<RoomMessageDTO> forViewer(List<RoomMessageDTO> messages, Long currentUserId, boolean viewerIsCreator) {
+        if (messages == null) return List.of();
+        return messages.stream()
+                .map(message -> message.toBuilder()
+                        .canDelete(canDelete(message.getUserId(), currentUserId, viewerIsCreator))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Authors can delete their own messages; the room creator can delete any
+     */
+    private boolean canDelete(Long authorId, Long currentUserId, boolean viewerIsCreator) {
+        if (currentUserId == null) return false;
+        return viewerIsCreator || currentUserId.equals(authorId);
+    }
+
     /**
      * Convert request DTO to entity
      */
@@ -70,7 +103,7 @@ public class RoomMessageMapper {
                 .roomId(roomId)
                 .userId(userId)
                 .message(dto.getMessage())
-                .messageType(dto.getMessageType())
+                .messageType(dto.getMessageType() != null ? dto.getMessageType() : MessageType.TEXT)
                 .isDeleted(false)
                 .build();
     }
@@ -81,7 +114,7 @@ public class RoomMessageMapper {
     public RoomMessageEntity createSystemMessage(Long roomId, String message) {
         return RoomMessageEntity.builder()
                 .roomId(roomId)
-                .userId(0L) // System user ID
+                .userId(UserDirectoryService.SYSTEM_USER_ID)
                 .message(message)
                 .messageType(MessageType.SYSTEM)
                 .isDeleted(false)
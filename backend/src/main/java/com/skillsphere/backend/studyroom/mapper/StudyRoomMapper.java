@@ -1,14 +1,16 @@
 package com.skillsphere.backend.studyroom.mapper;
 
+import com.skillsphere.backend.service.UserDirectoryService;
+import com.skillsphere.backend.service.UserDirectoryService.UserSummary;
 import com.skillsphere.backend.studyroom.dto.*;
 import com.skillsphere.backend.studyroom.entity.StudyRoomEntity;
 import com.skillsphere.backend.studyroom.entity.RoomStatus;
 import com.skillsphere.backend.studyroom.repo.RoomMemberRepo;
-import com.skillsphere.backend.studyroom.repo.RoomMessageRepo;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
@@ -16,18 +18,21 @@ import java.util.stream.Collectors;
 public class StudyRoomMapper {
 
     private final RoomMemberRepo roomMemberRepo;
-    private final RoomMessageRepo roomMessageRepo;
-    // TODO: Will need UserRepo to get username - add later
+    private final UserDirectoryService userDirectory;
 
     /**
      * Convert entity to basic DTO (for list views)
      */
     public StudyRoomDTO toDTO(StudyRoomEntity entity) {
         if (entity == null) return null;
+        return toDTO(entity, userDirectory.get(entity.getCreatedByUserId()));
+    }
+
+    private StudyRoomDTO toDTO(StudyRoomEntity entity, UserSummary creator) {
 
-        // Calculate stats
-        Long currentParticipants = roomMemberRepo.countActiveMembersByRoom(entity.getId());
-        Long totalMessages = roomMessageRepo.countByRoomIdAndIsDeletedFalse(entity.getId());
+        // Stats come from the room's live counters
+        Long currentParticipants = entity.getCurrentParticipants().longValue();
+        Long totalMessages = entity.getMessageCount();
         
         // Check if room has space
         Boolean hasSpace = entity.getMaxParticipants() == null 
@@ -43,7 +48,7 @@ public class StudyRoomMapper {
                 .category(entity.getCategory())
                 .skillTreeId(entity.getSkillTreeId())
                 .createdByUserId(entity.getCreatedByUserId())
-                .createdByUsername("User" + entity.getCreatedByUserId()) // TODO: Get from User table
+                .createdByUsername(creator.username())
                 .maxParticipants(entity.getMaxParticipants())
                 .isPublic(entity.getIsPublic())
                 .currentParticipants(currentParticipants)
@@ -100,8 +105,13 @@ public class StudyRoomMapper {
      */
     public List<StudyRoomDTO> toDTOList(List<StudyRoomEntity> entities) {
         if (entities == null) return List.of();
+
+        // All creators' names in one lookup
+        Map<Long, UserSummary> creators = userDirectory.getAll(
+                entities.stream().map(StudyRoomEntity::getCreatedByUserId).collect(Collectors.toSet()));
+
         return entities.stream()
-                .map(this::toDTO)
+                .map(entity -> toDTO(entity, UserSummary.of(creators, entity.getCreatedByUserId())))
                 .collect(Collectors.toList());
     }
 
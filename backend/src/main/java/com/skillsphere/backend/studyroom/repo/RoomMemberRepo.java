@@ -3,10 +3,12 @@ package com.skillsphere.backend.studyroom.repo;
 import com.skillsphere.backend.studyroom.entity.RoomMemberEntity;
 import com.skillsphere.backend.studyroom.entity.RoomMemberRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +35,12 @@ public interface RoomMemberRepo extends JpaRepository<RoomMemberEntity, Long> {
      */
     boolean existsByRoomIdAndUserIdAndIsActiveTrue(Long roomId, Long userId);
 
+    /**
+     * Get the user ids of all ACTIVE members of a room
+     */
+    @Query("SELECT m.userId FROM RoomMemberEntity m WHERE m.roomId = :roomId AND m.isActive = true")
+    List<Long> findActiveUserIdsByRoomId(@Param("roomId") Long roomId);
+
     // ========================================
     // GET MEMBERS
     // ========================================
@@ -83,6 +91,32 @@ public interface RoomMemberRepo extends JpaRepository<RoomMemberEntity, Long> {
     @Query("SELECT COALESCE(SUM(m.totalStudyTime), 0) FROM RoomMemberEntity m WHERE m.userId = :userId")
     Integer getTotalStudyTimeByUser(@Param("userId") Long userId);
 
+    /**
+     * Add minutes to a member's study time
+     */
+    @Modifying
+    @Query("UPDATE RoomMemberEntity m SET m.totalStudyTime = COALESCE(m.totalStudyTime, 0) + :minutes " +
+            "WHERE m.roomId = :roomId AND m.userId = :userId")
+    int addStudyTime(@Param("roomId") Long roomId, @Param("userId") Long userId, @Param("minutes") int minutes);
+
+    /**
+     * Mark an active membership as left
+     * Returns 1 if this call flipped it, 0 if it was already inactive (e.g. a concurrent leave won)
+     */
+    @Modifying
+    @Query("UPDATE RoomMemberEntity m SET m.isActive = false, m.leftAt = :leftAt " +
+            "WHERE m.roomId = :roomId AND m.userId = :userId AND m.isActive = true")
+    int deactivate(@Param("roomId") Long roomId, @Param("userId") Long userId, @Param("leftAt") LocalDateTime leftAt);
+
+    /**
+     * Reactivate a membership that was left
+     * Returns 1 if this call flipped it, 0 if it was already active (e.g. a concurrent rejoin won)
+     */
+    @Modifying
+    @Query("UPDATE RoomMemberEntity m SET m.isActive = true, m.leftAt = null " +
+            "WHERE m.roomId = :roomId AND m.userId = :userId AND m.isActive = false")
+    int reactivate(@Param("roomId") Long roomId, @Param("userId") Long userId);
+
     /**
      * Count how many rooms user has joined
      */
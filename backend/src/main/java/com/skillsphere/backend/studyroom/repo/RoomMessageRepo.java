@@ -3,6 +3,7 @@ package com.skillsphere.backend.studyroom.repo;
 import com.skillsphere.backend.studyroom.entity.MessageType;
 import com.skillsphere.backend.studyroom.entity.RoomMessageEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -55,6 +56,55 @@ public interface RoomMessageRepo extends JpaRepository<RoomMessageEntity, Long>
     @Query("SELECT m FROM RoomMessageEntity m WHERE m.roomId = :roomId AND m.isDeleted = false AND m.createdAt > :since ORDER BY m.createdAt ASC")
     List<RoomMessageEntity> findMessagesSince(@Param("roomId") Long roomId, @Param("since") LocalDateTime since);
 
+    /**
+     * Get messages with an id above a given one (for id-based polling)
+     */
+    List<RoomMessageEntity> findByRoomIdAndIdGreaterThanAndIsDeletedFalseOrderByIdAsc(Long roomId, Long afterId);
+
+    /**
+     * Get the highest message id in a room (0 if none)
+     */
+    @Query("SELECT COALESCE(MAX(m.id), 0) FROM RoomMessageEntity m WHERE m.roomId = :roomId")
+    Long findLatestMessageId(@Param("roomId") Long roomId);
+
+    // ========================================
+    // KEYSET PAGINATION (createdAt, id)
+    // Backed by idx_room_messages_room_created_id
+    // ========================================
+
+    /**
+     * Get the newest messages of a room, newest first
+     */
+    @Query("SELECT m FROM RoomMessageEntity m WHERE m.roomId = :roomId AND m.isDeleted = false " +
+            "ORDER BY m.createdAt DESC, m.id DESC LIMIT :limit")
+    List<RoomMessageEntity> findLatestPage(@Param("roomId") Long roomId, @Param("limit") int limit);
+
+    /**
+     * Get messages older than a cursor, newest first
+     * Row-value comparison, so the cursor is a single range bound on the index
+     */
+    @Query(value = "SELECT * FROM room_messages WHERE room_id = :roomId AND is_deleted = false " +
+            "AND (created_at, id) < (:createdAt, :id) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<RoomMessageEntity> findPageBefore(@Param("roomId") Long roomId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           @Param("limit") int limit);
+
+    /**
+     * Get messages newer than a cursor, oldest first
+     * Row-value comparison, so the cursor is a single range bound on the index
+     */
+    @Query(value = "SELECT * FROM room_messages WHERE room_id = :roomId AND is_deleted = false " +
+            "AND (created_at, id) > (:createdAt, :id) " +
+            "ORDER BY created_at ASC, id ASC LIMIT :limit",
+            nativeQuery = true)
+    List<RoomMessageEntity> findPageAfter(@Param("roomId") Long roomId,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          @Param("limit") int limit);
+
     // ========================================
     // COUNTS & STATS
     // ========================================
@@ -83,6 +133,15 @@ public interface RoomMessageRepo extends JpaRepository<RoomMessageEntity, Long>
      */
     List<RoomMessageEntity> findByRoomIdAndIsDeletedTrue(Long roomId);
 
+    /**
+     * Soft delete a message
+     * Returns 1 if this call deleted it, 0 if it was already deleted (e.g. a concurrent delete won)
+     */
+    @Modifying
+    @Query("UPDATE RoomMessageEntity m SET m.isDeleted = true, m.updatedAt = :deletedAt " +
+            "WHERE m.id = :messageId AND m.isDeleted = false")
+    int softDelete(@Param("messageId") Long messageId, @Param("deletedAt") LocalDateTime deletedAt);
+
     /**
      * Check if user has posted in room
      */
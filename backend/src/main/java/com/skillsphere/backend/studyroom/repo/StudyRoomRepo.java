@@ -4,6 +4,7 @@ import com.skillsphere.backend.studyroom.entity.RoomStatus;
 import com.skillsphere.backend.studyroom.entity.RoomType;
 import com.skillsphere.backend.studyroom.entity.StudyRoomEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -89,8 +90,7 @@ public interface StudyRoomRepo extends JpaRepository<StudyRoomEntity, Long> {
     @Query("""
         SELECT r FROM StudyRoomEntity r 
         WHERE r.status = 'ACTIVE' 
-        AND (r.maxParticipants IS NULL 
-             OR (SELECT COUNT(m) FROM RoomMemberEntity m WHERE m.roomId = r.id AND m.isActive = true) < r.maxParticipants)
+        AND (r.maxParticipants IS NULL OR r.currentParticipants < r.maxParticipants)
         ORDER BY r.createdAt DESC
     """)
     List<StudyRoomEntity> findRoomsWithSpace();
@@ -111,4 +111,60 @@ public interface StudyRoomRepo extends JpaRepository<StudyRoomEntity, Long> {
      */
     @Query("SELECT COUNT(r) FROM StudyRoomEntity r WHERE r.createdByUserId = :userId AND r.status = 'ACTIVE'")
     Long countActiveRoomsByCreator(@Param("userId") Long userId);
+
+    // ========================================
+    // LIVE COUNTERS
+    // ========================================
+
+    /**
+     * Add to the active participant count (negative to subtract)
+     */
+    @Modifying
+    @Query("UPDATE StudyRoomEntity r SET r.currentParticipants = r.currentParticipants + :delta WHERE r.id = :roomId")
+    int adjustParticipants(@Param("roomId") Long roomId, @Param("delta") int delta);
+
+    /**
+     * Take one seat if the room is open and below capacity
+     * Returns 1 if a seat was reserved, 0 if the room is full or closed.
+     * The row lock taken by the update serialises concurrent joins of the same room only.
+     */
+    @Modifying
+    @Query("UPDATE StudyRoomEntity r SET r.currentParticipants = r.currentParticipants + 1 " +
+            "WHERE r.id = :roomId AND r.status NOT IN ('CLOSED', 'ARCHIVED') " +
+            "AND (r.maxParticipants IS NULL OR r.currentParticipants < r.maxParticipants)")
+    int reserveSeat(@Param("roomId") Long roomId);
+
+    /**
+     * Add to the message count (negative to subtract)
+     */
+    @Modifying
+    @Query("UPDATE StudyRoomEntity r SET r.messageCount = r.messageCount + :delta WHERE r.id = :roomId")
+    int adjustMessageCount(@Param("roomId") Long roomId, @Param("delta") long delta);
+
+    /**
+     * Rooms whose counters are worth checking: open ones, plus any changed since a point in time
+     */
+    @Query("SELECT r.id FROM StudyRoomEntity r WHERE r.status = :status OR r.updatedAt >= :since ORDER BY r.id")
+    List<Long> findReconcileCandidates(@Param("status") RoomStatus status, @Param("since") LocalDateTime since);
+
+    /**
+     * Lock room rows in id order, waiting for transactions that are moving their counters
+     */
+    @Query(value = "SELECT id FROM study_rooms WHERE id IN (:roomIds) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockForUpdate(@Param("roomIds") List<Long> roomIds);
+
+    /**
+     * Recount members and messages for the given rooms where the counters drifted
+     * Returns the number of rooms corrected. Run after lockForUpdate in the same transaction.
+     */
+    @Modifying
+    @Query("""
+        UPDATE StudyRoomEntity r
+        SET r.currentParticipants = (SELECT COUNT(m) FROM RoomMemberEntity m WHERE m.roomId = r.id AND m.isActive = true),
+            r.messageCount = (SELECT COUNT(x) FROM RoomMessageEntity x WHERE x.roomId = r.id AND x.isDeleted = false)
+        WHERE r.id IN :roomIds
+          AND (r.currentParticipants <> (SELECT COUNT(m) FROM RoomMemberEntity m WHERE m.roomId = r.id AND m.isActive = true)
+            OR r.messageCount <> (SELECT COUNT(x) FROM RoomMessageEntity x WHERE x.roomId = r.id AND x.isDeleted = false))
+    """)
+    int reconcileCounters(@Param("roomIds") List<Long> roomIds);
 }
@@ -0,0 +1,85 @@
+package com.skillsphere.backend.studyroom.service;
+
+import com.skillsphere.backend.cache.BoundedCache;
+import com.skillsphere.backend.cache.CacheMetrics;
+import com.skillsphere.backend.studyroom.repo.RoomMessageRepo;
+import com.skillsphere.backend.studyroom.repo.StudyRoomRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Highest message id per room, kept in memory so id-based polls can tell that
+ * nothing changed without touching the database.
+ *
+ * Loaded from the database on first use and advanced by {@link RoomBroadcaster}
+ * after each committed message. Values only ever move forward. This is only a
+ * safe "nothing newer" answer because every message is inserted by
+ * {@link RoomMessageWriter}, whose single thread takes ids and commits in the
+ * same order; a lower id can never commit after a higher one.
+ */
+@Component
+public class LatestMessageIds {
+
+    private final StudyRoomRepo studyRoomRepo;
+    private final RoomMessageRepo roomMessageRepo;
+
+    private final BoundedCache<Long, AtomicLong> latestIds;
+
+    // Serialises loads with advances of rooms not cached yet, so a load cannot
+    // store an id older than a message committed while it was running
+    private final Object loadLock = new Object();
+
+    public LatestMessageIds(
+            StudyRoomRepo studyRoomRepo,
+            RoomMessageRepo roomMessageRepo,
+            MeterRegistry meterRegistry,
+            @Value("${skillsphere.study-rooms.latest-message-ids.max-rooms:10000}") int maxRooms
+    ) {
+        this.studyRoomRepo = studyRoomRepo;
+        this.roomMessageRepo = roomMessageRepo;
+        this.latestIds = new BoundedCache<>(maxRooms, null);
+
+        CacheMetrics.bind(meterRegistry, "latestMessageIds", latestIds);
+    }
+
+    /**
+     * Highest message id in a room (0 when the room has no messages)
+     * Fails for a room that does not exist, so unknown ids never take a cache slot
+     */
+    public long get(Long roomId) {
+        AtomicLong latest = latestIds.getIfPresent(roomId);
+        if (latest != null) {
+            return latest.get();
+        }
+        if (!studyRoomRepo.existsById(roomId)) {
+            throw new RuntimeException("Room not found with id: " + roomId);
+        }
+        synchronized (loadLock) {
+            latest = latestIds.getIfPresent(roomId);
+            if (latest == null) {
+                latest = new AtomicLong(roomMessageRepo.findLatestMessageId(roomId));
+                latestIds.put(roomId, latest);
+            }
+            return latest.get();
+        }
+    }
+
+    /**
+     * Record a committed message
+     * Rooms not cached are skipped; their next load reads the committed id
+     */
+    public void advance(Long roomId, Long messageId) {
+        AtomicLong latest = latestIds.getIfPresent(roomId);
+        if (latest == null) {
+            synchronized (loadLock) {
+                latest = latestIds.getIfPresent(roomId);
+            }
+        }
+        if (latest != null) {
+            latest.accumulateAndGet(messageId, Math::max);
+        }
+    }
+}
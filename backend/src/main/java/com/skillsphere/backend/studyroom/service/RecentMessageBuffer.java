@@ -0,0 +1,238 @@
+package com.skillsphere.backend.studyroom.service;
+
+import com.skillsphere.backend.studyroom.dto.RoomMessageDTO;
+import com.skillsphere.backend.studyroom.mapper.RoomMessageMapper;
+import com.skillsphere.backend.studyroom.repo.RoomMessageRepo;
+import com.skillsphere.backend.studyroom.repo.StudyRoomRepo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The latest messages of each active room, kept in memory as viewer-neutral DTOs
+ * (canDelete unset) in id order.
+ *
+ * A room's buffer is warmed from the database on first read; ids of rooms that do
+ * not exist are rejected before a buffer is created. Committed posts and
+ * deletes are applied by {@link RoomBroadcaster}; closed rooms are dropped and
+ * rooms nobody read or wrote for idle-minutes are evicted. Older history is
+ * still read from the repository.
+ */
+@Component
+@Slf4j
+public class RecentMessageBuffer {
+
+    private final StudyRoomRepo studyRoomRepo;
+    private final RoomMessageRepo roomMessageRepo;
+    private final RoomMessageMapper roomMessageMapper;
+
+    private final int capacity;
+    private final int maxRooms;
+    private final Duration idleTimeout;
+
+    private final Map<Long, RoomBuffer> rooms = new ConcurrentHashMap<>();
+
+    public RecentMessageBuffer(
+            StudyRoomRepo studyRoomRepo,
+            RoomMessageRepo roomMessageRepo,
+            RoomMessageMapper roomMessageMapper,
+            MeterRegistry meterRegistry,
+            @Value("${skillsphere.study-rooms.message-buffer.size:50}") int capacity,
+            @Value("${skillsphere.study-rooms.message-buffer.max-rooms:2000}") int maxRooms,
+            @Value("${skillsphere.study-rooms.message-buffer.idle-minutes:30}") long idleMinutes
+    ) {
+        this.studyRoomRepo = studyRoomRepo;
+        this.roomMessageRepo = roomMessageRepo;
+        this.roomMessageMapper = roomMessageMapper;
+        this.capacity = capacity;
+        this.maxRooms = maxRooms;
+        this.idleTimeout = Duration.ofMinutes(idleMinutes);
+
+        Gauge.builder("studyroom.message.buffer.rooms", rooms, Map::size)
+                .description("Study rooms with buffered recent messages")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Latest messages of a room, newest first (at most the buffer size)
+     */
+    public List<RoomMessageDTO> recent(Long roomId, int limit) {
+        RoomBuffer buffer = loaded(roomId);
+        synchronized (buffer) {
+            List<RoomMessageDTO> messages = new ArrayList<>(buffer.messages);
+            Collections.reverse(messages);
+            return messages.subList(0, Math.min(limit, messages.size()));
+        }
+    }
+
+    /**
+     * Messages created after a time, oldest first
+     * Empty if the buffer does not reach back that far and the repository must be used
+     */
+    public Optional<List<RoomMessageDTO>> since(Long roomId, LocalDateTime since) {
+        RoomBuffer buffer = loaded(roomId);
+        synchronized (buffer) {
+            boolean covered = buffer.complete
+                    || (!buffer.messages.isEmpty() && !buffer.messages.get(0).getCreatedAt().isAfter(since));
+            if (!covered) {
+                return Optional.empty();
+            }
+            return Optional.of(buffer.messages.stream()
+                    .filter(m -> m.getCreatedAt().isAfter(since))
+                    .toList());
+        }
+    }
+
+    /**
+     * Messages with an id above a given one, oldest first
+     * Empty if the buffer does not reach back that far and the repository must be used
+     */
+    public Optional<List<RoomMessageDTO>> after(Long roomId, long afterId) {
+        RoomBuffer buffer = loaded(roomId);
+        synchronized (buffer) {
+            boolean covered = buffer.complete
+                    || (!buffer.messages.isEmpty() && buffer.messages.get(0).getId() <= afterId);
+            if (!covered) {
+                return Optional.empty();
+            }
+            return Optional.of(buffer.messages.stream()
+                    .filter(m -> m.getId() > afterId)
+                    .toList());
+        }
+    }
+
+    /**
+     * Add a committed message to its room's buffer, if the room is buffered
+     */
+    public void append(RoomMessageDTO message) {
+        RoomBuffer buffer = rooms.get(message.getRoomId());
+        if (buffer == null) {
+            return;
+        }
+        synchronized (buffer) {
+            // Not warmed yet: the warm-up query runs after this commit and will include it
+            if (!buffer.loaded || buffer.indexOf(message.getId()) >= 0) {
+                return;
+            }
+            buffer.messages.add(message);
+            buffer.messages.sort(Comparator.comparing(RoomMessageDTO::getId));
+            if (buffer.messages.size() > capacity) {
+                buffer.messages.remove(0);
+                buffer.complete = false;
+            }
+            buffer.touch();
+        }
+    }
+
+    /**
+     * Drop a deleted message from its room's buffer
+     */
+    public void remove(Long roomId, Long messageId) {
+        RoomBuffer buffer = rooms.get(roomId);
+        if (buffer == null) {
+            return;
+        }
+        synchronized (buffer) {
+            int index = buffer.indexOf(messageId);
+            if (index < 0) {
+                return;
+            }
+            buffer.messages.remove(index);
+            if (!buffer.complete) {
+                // Older messages exist; warm again on the next read to refill the buffer
+                buffer.messages.clear();
+                buffer.loaded = false;
+            }
+        }
+    }
+
+    /**
+     * Forget a room (closed, or no longer worth keeping)
+     */
+    public void evict(Long roomId) {
+        rooms.remove(roomId);
+    }
+
+    @Scheduled(fixedDelayString = "${skillsphere.study-rooms.message-buffer.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long idleBefore = System.nanoTime() - idleTimeout.toNanos();
+        int before = rooms.size();
+        rooms.values().removeIf(buffer -> buffer.lastAccess - idleBefore < 0);
+
+        // Over the limit: drop the least recently used rooms
+        int excess = rooms.size() - maxRooms;
+        if (excess > 0) {
+            rooms.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().lastAccess))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(rooms::remove);
+        }
+
+        int evicted = before - rooms.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle room message buffer(s)", evicted);
+        }
+    }
+
+    /**
+     * Buffer of a room, warmed from the database under the buffer's own lock
+     * Fails for a room that does not exist, so unknown ids never take a buffer
+     */
+    private RoomBuffer loaded(Long roomId) {
+        RoomBuffer buffer = rooms.get(roomId);
+        if (buffer == null) {
+            if (!studyRoomRepo.existsById(roomId)) {
+                throw new RuntimeException("Room not found with id: " + roomId);
+            }
+            buffer = rooms.computeIfAbsent(roomId, id -> new RoomBuffer());
+        }
+        synchronized (buffer) {
+            if (!buffer.loaded) {
+                List<RoomMessageDTO> latest = new ArrayList<>(
+                        roomMessageMapper.toDTOList(roomMessageRepo.findRecentMessages(roomId, capacity), null, false));
+                latest.sort(Comparator.comparing(RoomMessageDTO::getId));
+                buffer.messages.addAll(latest);
+                buffer.complete = latest.size() < capacity;
+                buffer.loaded = true;
+            }
+            buffer.touch();
+        }
+        return buffer;
+    }
+
+    private static final class RoomBuffer {
+        private final List<RoomMessageDTO> messages = new ArrayList<>();
+        private boolean loaded;
+        // Holds every non-deleted message of the room
+        private boolean complete;
+        private volatile long lastAccess = System.nanoTime();
+
+        private void touch() {
+            lastAccess = System.nanoTime();
+        }
+
+        private int indexOf(Long messageId) {
+            for (int i = messages.size() - 1; i >= 0; i--) {
+                if (messages.get(i).getId().equals(messageId)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.skillsphere.backend.studyroom.service;
+
+import com.skillsphere.backend.studyroom.dto.RoomEventDTO;
+import com.skillsphere.backend.studyroom.dto.RoomMessageDTO;
+import com.skillsphere.backend.studyroom.dto.RoomPresenceDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pushes persisted room messages and events to STOMP subscribers and keeps the
+ * recent message buffer in step with them.
+ * Both are deferred until the surrounding transaction commits, so nobody sees a
+ * message that was rolled back.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomBroadcaster {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RecentMessageBuffer recentMessageBuffer;
+    private final LatestMessageIds latestMessageIds;
+    private final RoomMessageWaiters roomMessageWaiters;
+
+    /**
+     * Broadcast a saved message to /topic/room/{roomId}
+     */
+    public void broadcastMessage(RoomMessageDTO message) {
+        afterCommit(() -> {
+            latestMessageIds.advance(message.getRoomId(), message.getId());
+            recentMessageBuffer.append(message);
+            roomMessageWaiters.wake(message.getRoomId());
+            send(messageTopic(message.getRoomId()), message);
+        });
+    }
+
+    /**
+     * Broadcast a room event to /topic/room/{roomId}/events
+     */
+    public void broadcastEvent(Long roomId, RoomEventDTO.Type type, Long userId, Long messageId) {
+        RoomEventDTO event = RoomEventDTO.builder()
+                .type(type)
+                .roomId(roomId)
+                .userId(userId)
+                .messageId(messageId)
+                .timestamp(LocalDateTime.now())
+                .build();
+        afterCommit(() -> {
+            if (type == RoomEventDTO.Type.MESSAGE_DELETED) {
+                recentMessageBuffer.remove(roomId, messageId);
+            } else if (type == RoomEventDTO.Type.ROOM_CLOSED) {
+                recentMessageBuffer.evict(roomId);
+            }
+            send(messageTopic(roomId) + "/events", event);
+        });
+    }
+
+    /**
+     * Broadcast coalesced presence changes to /topic/room/{roomId}/presence
+     */
+    public void broadcastPresence(RoomPresenceDTO presence) {
+        afterCommit(() -> send(messageTopic(presence.getRoomId()) + "/presence", presence));
+    }
+
+    public static String messageTopic(Long roomId) {
+        return "/topic/room/" + roomId;
+    }
+
+    private void send(String destination, Object payload) {
+        try {
+            messagingTemplate.convertAndSend(destination, payload);
+        } catch (Exception e) {
+            // The change is already committed; clients catch up from the REST endpoints
+            log.warn("Failed to broadcast to {}: {}", destination, e.getMessage());
+        }
+    }
+
+    /**
+     * Run an action once the surrounding transaction commits (right away outside a transaction)
+     */
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,74 @@
+package com.skillsphere.backend.studyroom.service;
+
+import com.skillsphere.backend.studyroom.entity.RoomStatus;
+import com.skillsphere.backend.studyroom.repo.StudyRoomRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Periodically recounts room members and messages and fixes rooms whose
+ * live counters (currentParticipants, messageCount) drifted, e.g. after
+ * manual database edits.
+ *
+ * Only open rooms and rooms changed within recent-minutes are checked. Each chunk
+ * of rooms is locked first and counted by the next statement: joins, leaves and
+ * message writes move the counter under the same row lock as the rows being
+ * counted, so a recount never sees a change without its counter (or the other
+ * way round) and cannot overwrite a concurrent update with a stale count.
+ */
+@Component
+@Slf4j
+public class RoomCounterReconciler {
+
+    private static final int CHUNK_SIZE = 100;
+
+    private final StudyRoomRepo studyRoomRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final long recentMinutes;
+
+    public RoomCounterReconciler(
+            StudyRoomRepo studyRoomRepo,
+            TransactionTemplate transactionTemplate,
+            @Value("${skillsphere.study-rooms.counter-reconcile-recent-minutes:60}") long recentMinutes
+    ) {
+        this.studyRoomRepo = studyRoomRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.recentMinutes = recentMinutes;
+    }
+
+    @Scheduled(
+            initialDelayString = "${skillsphere.study-rooms.counter-reconcile-initial-delay-ms:10000}",
+            fixedDelayString = "${skillsphere.study-rooms.counter-reconcile-interval-ms:300000}"
+    )
+    public void reconcile() {
+        List<Long> roomIds;
+        try {
+            roomIds = studyRoomRepo.findReconcileCandidates(
+                    RoomStatus.ACTIVE, LocalDateTime.now().minusMinutes(recentMinutes));
+        } catch (Exception e) {
+            log.warn("Failed to reconcile study room counters: {}", e.getMessage());
+            return;
+        }
+
+        int corrected = 0;
+        for (int from = 0; from < roomIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = roomIds.subList(from, Math.min(from + CHUNK_SIZE, roomIds.size()));
+            try {
+                Integer chunkCorrected = transactionTemplate.execute(status ->
+                        studyRoomRepo.reconcileCounters(studyRoomRepo.lockForUpdate(chunk)));
+                corrected += chunkCorrected != null ? chunkCorrected : 0;
+            } catch (Exception e) {
+                log.warn("Failed to reconcile counters of {} study room(s): {}", chunk.size(), e.getMessage());
+            }
+        }
+        if (corrected > 0) {
+            log.info("Corrected live counters on {} study room(s)", corrected);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.skillsphere.backend.studyroom.service;
+
+import com.skillsphere.backend.cache.BoundedCache;
+import com.skillsphere.backend.cache.CacheMetrics;
+import com.skillsphere.backend.studyroom.entity.RoomStatus;
+import com.skillsphere.backend.studyroom.repo.RoomMemberRepo;
+import com.skillsphere.backend.studyroom.repo.StudyRoomRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Active member ids per room, used to authorise messages arriving over WebSocket
+ * without a membership query per message.
+ *
+ * Only ACTIVE rooms have members here; any other status maps to an empty set so
+ * nobody can post. Entries are dropped after every committed membership or status change.
+ */
+@Component
+@Slf4j
+public class RoomMembershipCache {
+
+    private final StudyRoomRepo studyRoomRepo;
+    private final RoomMemberRepo roomMemberRepo;
+
+    private final BoundedCache<Long, Set<Long>> members;
+
+    // Bumped on every invalidation so loads that raced with a membership change are not stored
+    private final AtomicLong version = new AtomicLong();
+
+    public RoomMembershipCache(
+            StudyRoomRepo studyRoomRepo,
+            RoomMemberRepo roomMemberRepo,
+            MeterRegistry meterRegistry,
+            @Value("${skillsphere.study-rooms.membership-cache.max-rooms:5000}") int maxRooms,
+            @Value("${skillsphere.study-rooms.membership-cache.ttl-minutes:10}") long ttlMinutes
+    ) {
+        this.studyRoomRepo = studyRoomRepo;
+        this.roomMemberRepo = roomMemberRepo;
+        this.members = new BoundedCache<>(maxRooms, Duration.ofMinutes(ttlMinutes));
+
+        CacheMetrics.bind(meterRegistry, "roomMembership", members);
+    }
+
+    /**
+     * Whether a user is an active member of a room that accepts messages
+     */
+    public boolean canPost(Long roomId, Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Set<Long> userIds = members.getIfPresent(roomId);
+        if (userIds == null) {
+            long expectedVersion = version.get();
+            userIds = load(roomId);
+            if (version.get() == expectedVersion) {
+                members.put(roomId, userIds);
+            }
+        }
+        return userIds.contains(userId);
+    }
+
+    // Before listeners that re-check membership through canPost (RoomSessionRegistry)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onMembershipChanged(RoomMembershipChangedEvent event) {
+        version.incrementAndGet();
+        members.invalidate(event.roomId());
+    }
+
+    private Set<Long> load(Long roomId) {
+        boolean active = studyRoomRepo.findById(roomId)
+                .map(room -> room.getStatus() == RoomStatus.ACTIVE)
+                .orElse(false);
+        if (!active) {
+            return Set.of();
+        }
+        Set<Long> userIds = Set.copyOf(roomMemberRepo.findActiveUserIdsByRoomId(roomId));
+        log.debug("Loaded {} active member(s) for room {}", userIds.size(), roomId);
+        return userIds;
+    }
+}
@@ -0,0 +1,7 @@
+package com.skillsphere.backend.studyroom.service;
+
+/**
+ * Published when a room's members or status change, so cached membership is dropped after commit
+ */
+public record RoomMembershipChangedEvent(Long roomId) {
+}
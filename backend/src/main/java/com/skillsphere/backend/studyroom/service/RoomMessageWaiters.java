@@ -0,0 +1,171 @@
+package com.skillsphere.backend.studyroom.service;
+
+import com.skillsphere.backend.studyroom.dto.RoomMessageDTO;
+import com.skillsphere.backend.studyroom.mapper.RoomMessageMapper;
+import com.skillsphere.backend.studyroom.repo.RoomMessageRepo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Long-poll requests parked per room until a new message is committed there.
+ *
+ * A waiting request holds no thread, only a {@link Waiter} in this registry.
+ * {@link RoomBroadcaster} wakes a room after each committed message. A single task
+ * per wake-up reads the new messages once (from the recent message buffer, or one
+ * query if the buffer does not reach back far enough) and hands every waiter its
+ * part, so a message in a busy room costs no per-waiter queries.
+ */
+@Component
+@Slf4j
+public class RoomMessageWaiters {
+
+    private final RecentMessageBuffer recentMessageBuffer;
+    private final RoomMessageRepo roomMessageRepo;
+    private final RoomMessageMapper roomMessageMapper;
+
+    private final Map<Long, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Executor wakeExecutor;
+
+    @Autowired
+    public RoomMessageWaiters(
+            RecentMessageBuffer recentMessageBuffer,
+            RoomMessageRepo roomMessageRepo,
+            RoomMessageMapper roomMessageMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this(recentMessageBuffer, roomMessageRepo, roomMessageMapper, meterRegistry,
+                Executors.newFixedThreadPool(2, runnable -> {
+                    Thread thread = new Thread(runnable, "room-message-waiters");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    RoomMessageWaiters(
+            RecentMessageBuffer recentMessageBuffer,
+            RoomMessageRepo roomMessageRepo,
+            RoomMessageMapper roomMessageMapper,
+            MeterRegistry meterRegistry,
+            Executor wakeExecutor
+    ) {
+        this.recentMessageBuffer = recentMessageBuffer;
+        this.roomMessageRepo = roomMessageRepo;
+        this.roomMessageMapper = roomMessageMapper;
+        this.wakeExecutor = wakeExecutor;
+
+        Gauge.builder("studyroom.message.waiters", waiting, AtomicInteger::get)
+                .description("Long-poll requests waiting for room messages")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Park a waiter until the next message in the room
+     */
+    public void await(Long roomId, Waiter waiter) {
+        waiters.compute(roomId, (id, set) -> {
+            Set<Waiter> roomWaiters = set != null ? set : ConcurrentHashMap.newKeySet();
+            if (roomWaiters.add(waiter)) {
+                waiting.incrementAndGet();
+            }
+            return roomWaiters;
+        });
+    }
+
+    /**
+     * Remove a waiter that completed or timed out
+     */
+    public void cancel(Long roomId, Waiter waiter) {
+        waiters.computeIfPresent(roomId, (id, set) -> {
+            if (set.remove(waiter)) {
+                waiting.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * Hand the new messages of a room to every waiter parked on it
+     */
+    public void wake(Long roomId) {
+        Set<Waiter> woken = waiters.remove(roomId);
+        if (woken == null) {
+            return;
+        }
+        waiting.addAndGet(-woken.size());
+        try {
+            wakeExecutor.execute(() -> deliver(roomId, woken));
+        } catch (Exception e) {
+            log.warn("Failed to wake {} long-poll request(s) for room {}: {}", woken.size(), roomId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (wakeExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void deliver(Long roomId, Set<Waiter> woken) {
+        long fromId = woken.stream().mapToLong(Waiter::afterId).min().orElse(0);
+
+        // Viewer-neutral, read once for all waiters
+        List<RoomMessageDTO> messages;
+        try {
+            messages = recentMessageBuffer.after(roomId, fromId).orElseGet(() -> roomMessageMapper.toDTOList(
+                    roomMessageRepo.findByRoomIdAndIdGreaterThanAndIsDeletedFalseOrderByIdAsc(roomId, fromId), null, false));
+        } catch (Exception e) {
+            woken.forEach(waiter -> waiter.onError().accept(e));
+            return;
+        }
+
+        for (Waiter waiter : woken) {
+            if (!waiter.alive().getAsBoolean()) {
+                // Timed out or completed while the messages were read; drop it instead of re-parking
+                continue;
+            }
+            List<RoomMessageDTO> newer = messages.stream()
+                    .filter(message -> message.getId() > waiter.afterId())
+                    .toList();
+            if (newer.isEmpty()) {
+                // Nothing past this waiter's position yet; keep waiting.
+                // Check again after parking: a timeout in between would otherwise leave it parked
+                await(roomId, waiter);
+                if (!waiter.alive().getAsBoolean()) {
+                    cancel(roomId, waiter);
+                }
+                continue;
+            }
+            try {
+                waiter.onMessages().accept(newer);
+            } catch (Exception e) {
+                log.warn("Failed to complete long-poll request for room {}: {}", roomId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A parked request: receives the viewer-neutral messages with an id above afterId.
+     * alive turns false once the request has completed or timed out.
+     */
+    public record Waiter(long afterId, Consumer<List<RoomMessageDTO>> onMessages, Consumer<Exception> onError,
+                         BooleanSupplier alive) {
+    }
+}
@@ -0,0 +1,263 @@
+package com.skillsphere.backend.studyroom.service;
+
+import com.skillsphere.backend.studyroom.entity.RoomMessageEntity;
+import com.skillsphere.backend.studyroom.repo.StudyRoomRepo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Writes chat messages in groups: callers enqueue a message and get a future
+ * that completes with the saved entity (including its id) once the group
+ * containing it is committed.
+ *
+ * A single writer thread collects messages for up to flush-window-ms after the
+ * first one arrives, or until batch-size are queued. Ids for the whole group are
+ * taken from the room_messages id sequence in one query and the rows are sent
+ * as one JDBC batch (RoomMessageEntity uses IDENTITY, which rules out Hibernate
+ * insert batching). Room message counters are adjusted in the same transaction,
+ * once per room.
+ *
+ * Messages are checked before they are queued, so one bad row cannot fail a
+ * group; if a group insert still fails, its rows are retried one at a time and
+ * only the rows that fail again fail their futures.
+ *
+ * On shutdown queued messages are still written; any message that arrives too
+ * late for the writer thread fails its future instead of waiting forever.
+ *
+ * Futures are completed on a separate single thread, so the callers' follow-up
+ * work (mapping, broadcasting) never holds up the next insert; being a single
+ * thread it still sees batches in commit order.
+ */
+@Component
+@Slf4j
+public class RoomMessageWriter {
+
+    private static final String NEXT_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('room_messages', 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO room_messages (id, room_id, user_id, message, message_type, is_deleted, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StudyRoomRepo studyRoomRepo;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final long flushWindowNanos;
+    private final BlockingQueue<Pending> queue;
+
+    private final ExecutorService completionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "room-message-completion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Thread writerThread;
+    private volatile boolean running;
+
+    public RoomMessageWriter(
+            JdbcTemplate jdbcTemplate,
+            StudyRoomRepo studyRoomRepo,
+            TransactionTemplate transactionTemplate,
+            @Value("${skillsphere.room-messages.batch-size:256}") int batchSize,
+            @Value("${skillsphere.room-messages.flush-window-ms:5}") long flushWindowMs,
+            @Value("${skillsphere.room-messages.max-queued:100000}") int maxQueued
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.studyRoomRepo = studyRoomRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.flushWindowNanos = TimeUnit.MILLISECONDS.toNanos(flushWindowMs);
+        this.queue = new LinkedBlockingQueue<>(maxQueued);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::run, "room-message-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+
+        // Offered after the writer's last drain, or left behind by a writer that did not finish in time
+        List<Pending> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        if (!abandoned.isEmpty()) {
+            log.warn("Dropping {} room message(s) queued during shutdown", abandoned.size());
+            abandoned.forEach(pending -> pending.result().completeExceptionally(stoppedException()));
+        }
+
+        completionExecutor.shutdown();
+        completionExecutor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queue a message for the next group insert
+     * The future fails right away if the writer is stopped or its queue is full
+     */
+    public CompletableFuture<RoomMessageEntity> enqueue(RoomMessageEntity message) {
+        Pending pending = new Pending(message, new CompletableFuture<>());
+        String problem = validate(message);
+        if (problem != null) {
+            pending.result().completeExceptionally(new IllegalArgumentException(problem));
+        } else if (!running) {
+            pending.result().completeExceptionally(stoppedException());
+        } else if (!queue.offer(pending)) {
+            pending.result().completeExceptionally(new RuntimeException("Message queue is full, please try again"));
+        } else if (!running && queue.remove(pending)) {
+            // stop() began while this was being offered and may already have drained the queue
+            pending.result().completeExceptionally(stoppedException());
+        }
+        return pending.result();
+    }
+
+    private static RuntimeException stoppedException() {
+        return new RuntimeException("Message writer is shutting down, please try again");
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                List<Pending> batch = nextBatch();
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                // Stopping; whatever is still queued is written below
+            } catch (Exception e) {
+                log.warn("Room message writer failed: {}", e.getMessage());
+            }
+        }
+
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            write(remaining.subList(from, Math.min(from + batchSize, remaining.size())));
+        }
+    }
+
+    /**
+     * Wait for a first message, then collect more until the window closes or the batch is full
+     */
+    private List<Pending> nextBatch() throws InterruptedException {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        Pending first = queue.poll(1, TimeUnit.SECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + flushWindowNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    /**
+     * Reject a message the insert could not write, instead of failing its whole group
+     */
+    private static String validate(RoomMessageEntity message) {
+        if (message == null) {
+            return "Message cannot be empty";
+        }
+        if (message.getRoomId() == null || message.getUserId() == null) {
+            return "Message must have a room and an author";
+        }
+        if (message.getMessage() == null || message.getMessage().isBlank()) {
+            return "Message cannot be empty";
+        }
+        if (message.getMessageType() == null) {
+            return "Message type is required";
+        }
+        return null;
+    }
+
+    private void write(List<Pending> batch) {
+        List<RoomMessageEntity> messages = batch.stream().map(Pending::message).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(messages));
+        } catch (Exception e) {
+            messages.forEach(message -> message.setId(null));
+            if (batch.size() == 1) {
+                log.warn("Failed to write room message: {}", e.getMessage());
+                completionExecutor.execute(() -> batch.get(0).result().completeExceptionally(e));
+                return;
+            }
+            // Find the offending rows so the rest of the group still goes through
+            log.warn("Failed to write {} room message(s), retrying one at a time: {}", batch.size(), e.getMessage());
+            batch.forEach(pending -> write(List.of(pending)));
+            return;
+        }
+
+        completionExecutor.execute(() -> batch.forEach(pending -> pending.result().complete(pending.message())));
+        log.debug("Wrote {} room message(s)", batch.size());
+    }
+
+    private void insert(List<RoomMessageEntity> messages) {
+        List<Long> ids = jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, messages.size());
+        // Database precision, so cursors built from the returned entity match the stored row
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        for (int i = 0; i < messages.size(); i++) {
+            RoomMessageEntity message = messages.get(i);
+            message.setId(ids.get(i));
+            message.setCreatedAt(now);
+            message.setUpdatedAt(now);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, messages, messages.size(), (ps, message) -> {
+            ps.setLong(1, message.getId());
+            ps.setLong(2, message.getRoomId());
+            ps.setLong(3, message.getUserId());
+            ps.setString(4, message.getMessage());
+            ps.setString(5, message.getMessageType().name());
+            ps.setBoolean(6, Boolean.TRUE.equals(message.getIsDeleted()));
+            ps.setTimestamp(7, Timestamp.valueOf(message.getCreatedAt()));
+            ps.setTimestamp(8, Timestamp.valueOf(message.getUpdatedAt()));
+        });
+
+        // In room id order, the order RoomCounterReconciler locks rooms in
+        Map<Long, Long> countByRoom = messages.stream()
+                .collect(Collectors.groupingBy(RoomMessageEntity::getRoomId, TreeMap::new, Collectors.counting()));
+        countByRoom.forEach(studyRoomRepo::adjustMessageCount);
+    }
+
+    private record Pending(RoomMessageEntity message, CompletableFuture<RoomMessageEntity> result) {
+    }
+}
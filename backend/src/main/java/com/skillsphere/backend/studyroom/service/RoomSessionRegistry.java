@@ -0,0 +1,301 @@
+package com.skillsphere.backend.studyroom.service;
+
+import com.skillsphere.backend.studyroom.dto.RoomPresenceDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Who is connected to /ws and which rooms they are watching.
+ *
+ * A user is online in a room while at least one of their sessions is subscribed
+ * to /topic/room/{roomId}. Changes are collected per room and published as one
+ * coalesced {@link RoomPresenceDTO} per room per interval, so a burst of joins
+ * in a big session costs subscribers a single frame. Subscriptions of room
+ * members also drive the study time tracker; whether a subscription counts as
+ * studying is re-checked whenever the room's membership changes, so joining or
+ * leaving with the room page already open starts or stops the study time.
+ */
+@Component
+@Slf4j
+public class RoomSessionRegistry {
+
+    private static final Pattern ROOM_TOPIC = Pattern.compile("^/topic/room/(\\d+)$");
+
+    private final StudyTimeTracker studyTimeTracker;
+    private final RoomMembershipCache roomMembershipCache;
+    private final SessionUserResolver sessionUserResolver;
+    private final RoomBroadcaster roomBroadcaster;
+
+    // sessionId -> connected session
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    // roomId -> (userId -> subscribed sessions)
+    private final Map<Long, Map<Long, Integer>> online = new ConcurrentHashMap<>();
+
+    // roomId -> changes not yet published
+    private final Map<Long, PresenceDiff> pending = new ConcurrentHashMap<>();
+
+    // Bumped on every membership change so a subscribe that raced with one is re-checked
+    private final AtomicLong membershipVersion = new AtomicLong();
+
+    public RoomSessionRegistry(
+            StudyTimeTracker studyTimeTracker,
+            RoomMembershipCache roomMembershipCache,
+            SessionUserResolver sessionUserResolver,
+            RoomBroadcaster roomBroadcaster,
+            MeterRegistry meterRegistry
+    ) {
+        this.studyTimeTracker = studyTimeTracker;
+        this.roomMembershipCache = roomMembershipCache;
+        this.sessionUserResolver = sessionUserResolver;
+        this.roomBroadcaster = roomBroadcaster;
+
+        Gauge.builder("studyroom.ws.sessions", sessions, Map::size)
+                .description("Connected WebSocket sessions")
+                .register(meterRegistry);
+    }
+
+    // ========================================
+    // QUERIES
+    // ========================================
+
+    /**
+     * Users currently online in a room
+     */
+    public Set<Long> onlineUsers(Long roomId) {
+        Map<Long, Integer> users = online.get(roomId);
+        return users == null ? Set.of() : Set.copyOf(users.keySet());
+    }
+
+    // ========================================
+    // SESSION EVENTS
+    // ========================================
+
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        if (headers.getSessionId() == null) {
+            return;
+        }
+        Long userId = sessionUserResolver.resolve(event.getUser(), headers.getSessionAttributes());
+        sessions.put(headers.getSessionId(), new Session(userId));
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Matcher matcher = ROOM_TOPIC.matcher(String.valueOf(headers.getDestination()));
+        if (!matcher.matches() || headers.getSessionId() == null || headers.getSubscriptionId() == null) {
+            return;
+        }
+
+        Session session = sessions.computeIfAbsent(headers.getSessionId(), id ->
+                new Session(sessionUserResolver.resolve(event.getUser(), headers.getSessionAttributes())));
+        if (session.userId() == null) {
+            return; // Anonymous viewers are not shown as online
+        }
+
+        Long roomId = Long.valueOf(matcher.group(1));
+        // Only members of an active room study in it; other subscribers just watch
+        long expectedVersion = membershipVersion.get();
+        boolean studying = roomMembershipCache.canPost(roomId, session.userId());
+
+        Subscription previous = session.subscriptions()
+                .put(headers.getSubscriptionId(), new Subscription(roomId, studying));
+        if (previous == null) {
+            subscribed(roomId, session.userId(), studying);
+        }
+        if (membershipVersion.get() != expectedVersion) {
+            // The membership changed while this subscription was being added; it may have missed the re-check
+            recheck(session, headers.getSubscriptionId());
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Session session = sessions.get(headers.getSessionId());
+        if (session == null || headers.getSubscriptionId() == null) {
+            return;
+        }
+        Subscription subscription = session.subscriptions().remove(headers.getSubscriptionId());
+        if (subscription != null) {
+            unsubscribed(subscription, session.userId());
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Session session = sessions.remove(event.getSessionId());
+        if (session == null) {
+            return;
+        }
+        session.subscriptions().values().forEach(subscription -> unsubscribed(subscription, session.userId()));
+        log.debug("Session {} disconnected from {} room subscription(s)",
+                event.getSessionId(), session.subscriptions().size());
+    }
+
+    /**
+     * Re-check the room's subscriptions after a join, leave or status change; runs after
+     * the membership cache has dropped the room so canPost sees the committed members
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onMembershipChanged(RoomMembershipChangedEvent event) {
+        membershipVersion.incrementAndGet();
+        sessions.values().forEach(session -> session.subscriptions().forEach((subscriptionId, subscription) -> {
+            if (subscription.roomId().equals(event.roomId())) {
+                recheck(session, subscriptionId);
+            }
+        }));
+    }
+
+    // ========================================
+    // PRESENCE FAN-OUT
+    // ========================================
+
+    /**
+     * Publish the coalesced presence changes of every room that changed
+     */
+    @Scheduled(fixedDelayString = "${skillsphere.study-rooms.presence-interval-ms:2000}")
+    public void publishPresence() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<RoomPresenceDTO> updates = new ArrayList<>();
+        for (Long roomId : List.copyOf(pending.keySet())) {
+            PresenceDiff diff = pending.remove(roomId);
+            if (diff == null) {
+                continue;
+            }
+            synchronized (diff) {
+                if (diff.joined.isEmpty() && diff.left.isEmpty()) {
+                    continue;
+                }
+                updates.add(RoomPresenceDTO.builder()
+                        .roomId(roomId)
+                        .joinedUserIds(Set.copyOf(diff.joined))
+                        .leftUserIds(Set.copyOf(diff.left))
+                        .onlineCount(onlineUsers(roomId).size())
+                        .build());
+            }
+        }
+
+        updates.forEach(roomBroadcaster::broadcastPresence);
+    }
+
+    private void subscribed(Long roomId, Long userId, boolean studying) {
+        // Count inside compute, so a concurrent unsubscribe cannot drop the room's map in between
+        online.compute(roomId, (id, users) -> {
+            Map<Long, Integer> roomUsers = users != null ? users : new ConcurrentHashMap<>();
+            if (roomUsers.merge(userId, 1, Integer::sum) == 1) {
+                recordChange(roomId, diff -> diff.cameOnline(userId));
+            }
+            return roomUsers;
+        });
+        if (studying) {
+            studyTimeTracker.connected(roomId, userId);
+        }
+    }
+
+    private void unsubscribed(Subscription subscription, Long userId) {
+        Long roomId = subscription.roomId();
+        online.computeIfPresent(roomId, (id, users) -> {
+            Integer remaining = users.computeIfPresent(userId, (user, count) -> count > 1 ? count - 1 : null);
+            if (remaining == null) {
+                recordChange(roomId, diff -> diff.wentOffline(userId));
+            }
+            return users.isEmpty() ? null : users;
+        });
+        if (subscription.studying()) {
+            studyTimeTracker.disconnected(roomId, userId);
+        }
+    }
+
+    /**
+     * Flip a subscription between studying and watching if the user's membership changed.
+     * The swap is a compare-and-set, so a concurrent unsubscribe or re-check ends the
+     * study time of exactly the state it removed or replaced.
+     */
+    private void recheck(Session session, String subscriptionId) {
+        Subscription subscription = session.subscriptions().get(subscriptionId);
+        if (subscription == null) {
+            return;
+        }
+        Long roomId = subscription.roomId();
+        boolean studying = roomMembershipCache.canPost(roomId, session.userId());
+        if (studying == subscription.studying()
+                || !session.subscriptions().replace(subscriptionId, subscription, new Subscription(roomId, studying))) {
+            return;
+        }
+        if (studying) {
+            studyTimeTracker.connected(roomId, session.userId());
+        } else {
+            studyTimeTracker.disconnected(roomId, session.userId());
+        }
+    }
+
+    /**
+     * Apply a change to the room's pending diff atomically with respect to publishing,
+     * so a change lands either in the diff being published or in the next one
+     */
+    private void recordChange(Long roomId, Consumer<PresenceDiff> change) {
+        pending.compute(roomId, (id, diff) -> {
+            PresenceDiff roomDiff = diff != null ? diff : new PresenceDiff();
+            change.accept(roomDiff);
+            return roomDiff;
+        });
+    }
+
+    private record Session(Long userId, Map<String, Subscription> subscriptions) {
+        private Session(Long userId) {
+            this(userId, new ConcurrentHashMap<>());
+        }
+    }
+
+    private record Subscription(Long roomId, boolean studying) {
+    }
+
+    private static final class PresenceDiff {
+        private final Set<Long> joined = new HashSet<>();
+        private final Set<Long> left = new HashSet<>();
+
+        private synchronized void cameOnline(Long userId) {
+            // Left and came back within the interval: nothing changed
+            if (!left.remove(userId)) {
+                joined.add(userId);
+            }
+        }
+
+        private synchronized void wentOffline(Long userId) {
+            if (!joined.remove(userId)) {
+                left.add(userId);
+            }
+        }
+    }
+}
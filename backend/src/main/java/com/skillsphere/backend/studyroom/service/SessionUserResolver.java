@@ -0,0 +1,42 @@
+package com.skillsphere.backend.studyroom.service;
+
+import com.skillsphere.backend.entity.UserEntity;
+import com.skillsphere.backend.repo.UserRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * Resolves the user id behind a WebSocket session's principal (JWT cookie on the
+ * handshake). The id is looked up once and kept in the session attributes.
+ */
+@Component
+@RequiredArgsConstructor
+public class SessionUserResolver {
+
+    private static final String USER_ID_ATTRIBUTE = "userId";
+
+    private final UserRepo userRepo;
+
+    /**
+     * User id of the session, or null if the session is not authenticated
+     */
+    public Long resolve(Principal principal, Map<String, Object> sessionAttributes) {
+        if (principal == null) {
+            return null;
+        }
+        if (sessionAttributes != null && sessionAttributes.get(USER_ID_ATTRIBUTE) instanceof Long userId) {
+            return userId;
+        }
+
+        Long userId = userRepo.findByUsername(principal.getName())
+                .map(UserEntity::getUserId)
+                .orElse(null);
+        if (userId != null && sessionAttributes != null) {
+            sessionAttributes.put(USER_ID_ATTRIBUTE, userId);
+        }
+        return userId;
+    }
+}
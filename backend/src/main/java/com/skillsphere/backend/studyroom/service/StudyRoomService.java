@@ -1,16 +1,32 @@
 package com.skillsphere.backend.studyroom.service;
 
+import com.skillsphere.backend.service.UserDirectoryService;
 import com.skillsphere.backend.studyroom.dto.*;
 import com.skillsphere.backend.studyroom.entity.*;
 import com.skillsphere.backend.studyroom.mapper.*;
 import com.skillsphere.backend.studyroom.repo.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -28,6 +44,37 @@ public class StudyRoomService {
     private final RoomMessageMapper roomMessageMapper;
     private final MyRoomsMapper myRoomsMapper;
 
+    // Display names for system messages
+    private final UserDirectoryService userDirectory;
+
+    // Pushes committed changes to STOMP subscribers and the recent message buffer
+    private final RoomBroadcaster roomBroadcaster;
+    private final RecentMessageBuffer recentMessageBuffer;
+    private final LatestMessageIds latestMessageIds;
+    private final RoomMessageWaiters roomMessageWaiters;
+
+    // Study time (presence from REST joins/leaves and polls)
+    private final StudyTimeTracker studyTimeTracker;
+
+    // Who is connected over WebSocket
+    private final RoomSessionRegistry roomSessionRegistry;
+
+    @Value("${skillsphere.study-rooms.long-poll-timeout-ms:25000}")
+    private long longPollTimeoutMs;
+
+    // How long a REST post waits for the grouped writer before giving up
+    @Value("${skillsphere.room-messages.post-timeout-ms:5000}")
+    private long postTimeoutMs;
+
+    // WebSocket message path
+    private final RoomMembershipCache roomMembershipCache;
+    private final RoomMessageWriter roomMessageWriter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Message history page sizes
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     // TODO: Add UserRepo to check user roles
 
     // ========================================
@@ -106,11 +153,16 @@ public class StudyRoomService {
         List<RoomMemberEntity> memberEntities = roomMemberRepo.findByRoomIdAndIsActiveTrue(roomId);
         List<RoomMemberDTO> members = roomMemberMapper.toDTOList(memberEntities);
 
-        // Get recent messages (last 50)
-        List<RoomMessageEntity> messageEntities = roomMessageRepo.findRecentMessages(roomId, 50);
-        List<RoomMessageDTO> messages = roomMessageMapper.toDTOList(messageEntities, currentUserId);
+        // Online status from connected WebSocket sessions
+        Set<Long> onlineUserIds = roomSessionRegistry.onlineUsers(roomId);
+        members.forEach(member -> member.setIsOnline(onlineUserIds.contains(member.getUserId())));
+
+        // Get recent messages (last 50) from the in-memory buffer
+        List<RoomMessageDTO> messages = forViewer(roomId, recentMessageBuffer.recent(roomId, 50), currentUserId);
 
-        return studyRoomMapper.toDetailDTO(room, members, messages, currentUserId);
+        StudyRoomDetailDTO detail = studyRoomMapper.toDetailDTO(room, members, messages, currentUserId);
+        detail.setOnlineCount(onlineUserIds.size());
+        return detail;
     }
 
     // ========================================
@@ -141,6 +193,10 @@ public class StudyRoomService {
             room.setActualStart(LocalDateTime.now());
         }
 
+        // Counters start with the creator's membership; the writer counts the system message below
+        room.setCurrentParticipants(1);
+        room.setMessageCount(0L);
+
         // Save room
         StudyRoomEntity savedRoom = studyRoomRepo.save(room);
         log.info("Room created with id: {}", savedRoom.getId());
@@ -152,14 +208,12 @@ public class StudyRoomService {
                 RoomMemberRole.CREATOR
         );
         roomMemberRepo.save(creatorMember);
+        eventPublisher.publishEvent(new RoomMembershipChangedEvent(savedRoom.getId()));
+        studyTimeTracker.joined(savedRoom.getId(), creatorUserId);
         log.info("Creator added as member");
 
         // Create system message
-        RoomMessageEntity systemMessage = roomMessageMapper.createSystemMessage(
-                savedRoom.getId(),
-                "Room created and ready for collaboration!"
-        );
-        roomMessageRepo.save(systemMessage);
+        postSystemMessage(savedRoom.getId(), "Room created and ready for collaboration!");
 
         return studyRoomMapper.toDTO(savedRoom);
     }
@@ -192,18 +246,19 @@ public class StudyRoomService {
             if (membership.getIsActive()) {
                 throw new RuntimeException("You are already a member of this room");
             } else {
-                // Rejoin - reactivate membership
-                membership.setIsActive(true);
-                membership.setLeftAt(null);
-                roomMemberRepo.save(membership);
+                // Rejoin - reactivate membership (needs a free seat like a new join)
+                // Only the request that flips the row takes a seat; a full room rolls the flip back
+                if (roomMemberRepo.reactivate(roomId, userId) != 1) {
+                    throw new RuntimeException("You are already a member of this room");
+                }
+                reserveSeat(room);
+                eventPublisher.publishEvent(new RoomMembershipChangedEvent(roomId));
                 log.info("User {} rejoined room {}", userId, roomId);
 
                 // System message
-                RoomMessageEntity systemMessage = roomMessageMapper.createSystemMessage(
-                        roomId,
-                        "User" + userId + " rejoined the room"
-                );
-                roomMessageRepo.save(systemMessage);
+                postSystemMessage(roomId, userDirectory.usernameOf(userId) + " rejoined the room");
+                roomBroadcaster.broadcastEvent(roomId, RoomEventDTO.Type.MEMBER_JOINED, userId, null);
+                studyTimeTracker.joined(roomId, userId);
 
                 return JoinRoomResponseDTO.builder()
                         .roomId(roomId)
@@ -213,23 +268,19 @@ public class StudyRoomService {
             }
         }
 
-        // Check room capacity
-        Long currentCount = roomMemberRepo.countActiveMembersByRoom(roomId);
-        if (room.getMaxParticipants() != null && currentCount >= room.getMaxParticipants()) {
-            throw new RuntimeException("Room is full. Max capacity: " + room.getMaxParticipants());
-        }
+        // Check room capacity and take a seat atomically
+        reserveSeat(room);
 
         // Create new membership
         RoomMemberEntity newMember = roomMemberMapper.createMembership(roomId, userId, RoomMemberRole.MEMBER);
         RoomMemberEntity savedMember = roomMemberRepo.save(newMember);
+        eventPublisher.publishEvent(new RoomMembershipChangedEvent(roomId));
         log.info("User {} joined room {} successfully", userId, roomId);
 
         // System message
-        RoomMessageEntity systemMessage = roomMessageMapper.createSystemMessage(
-                roomId,
-                "User" + userId + " joined the room"
-        );
-        roomMessageRepo.save(systemMessage);
+        postSystemMessage(roomId, userDirectory.usernameOf(userId) + " joined the room");
+        roomBroadcaster.broadcastEvent(roomId, RoomEventDTO.Type.MEMBER_JOINED, userId, null);
+        studyTimeTracker.joined(roomId, userId);
 
         return JoinRoomResponseDTO.builder()
                 .roomId(roomId)
@@ -238,6 +289,16 @@ public class StudyRoomService {
                 .build();
     }
 
+    /**
+     * Reserve a seat with a conditional update on the room row
+     * Concurrent joins cannot overfill the room; the seat is released if the join rolls back
+     */
+    private void reserveSeat(StudyRoomEntity room) {
+        if (studyRoomRepo.reserveSeat(room.getId()) == 0) {
+            throw new RuntimeException("Room is full. Max capacity: " + room.getMaxParticipants());
+        }
+    }
+
     // ========================================
     // LEAVE ROOM
     // ========================================
@@ -267,23 +328,29 @@ public class StudyRoomService {
             throw new RuntimeException("Room creator cannot leave. Please close the room instead.");
         }
 
-        // Mark as inactive
-        membership.setIsActive(false);
-        membership.setLeftAt(LocalDateTime.now());
-        roomMemberRepo.save(membership);
+        // Mark as inactive; only the request that flips the row gives the seat back
+        if (roomMemberRepo.deactivate(roomId, userId, LocalDateTime.now()) != 1) {
+            throw new RuntimeException("You have already left this room");
+        }
+        studyRoomRepo.adjustParticipants(roomId, -1);
+        eventPublisher.publishEvent(new RoomMembershipChangedEvent(roomId));
         log.info("User {} left room {} successfully", userId, roomId);
 
+        // Add the study time not yet flushed by the tracker
+        int unflushedMinutes = studyTimeTracker.left(roomId, userId);
+        if (unflushedMinutes > 0) {
+            roomMemberRepo.addStudyTime(roomId, userId, unflushedMinutes);
+        }
+        int studyTimeMinutes = (membership.getTotalStudyTime() != null ? membership.getTotalStudyTime() : 0) + unflushedMinutes;
+
         // System message
-        RoomMessageEntity systemMessage = roomMessageMapper.createSystemMessage(
-                roomId,
-                "User" + userId + " left the room"
-        );
-        roomMessageRepo.save(systemMessage);
+        postSystemMessage(roomId, userDirectory.usernameOf(userId) + " left the room");
+        roomBroadcaster.broadcastEvent(roomId, RoomEventDTO.Type.MEMBER_LEFT, userId, null);
 
         return LeaveRoomResponseDTO.builder()
                 .roomId(roomId)
-                .studyTimeMinutes(membership.getTotalStudyTime())
-                .message("You left " + room.getName() + ". Study time: " + membership.getTotalStudyTime() + " minutes")
+                .studyTimeMinutes(studyTimeMinutes)
+                .message("You left " + room.getName() + ". Study time: " + studyTimeMinutes + " minutes")
                 .build();
     }
 
@@ -293,9 +360,9 @@ public class StudyRoomService {
 
     /**
      * Post a message in a room
-     * User must be an active member
+     * User must be an active member. The insert goes through the grouped message
+     * writer, so this waits (a few milliseconds) for the group to be committed.
      */
-    @Transactional
     public RoomMessageDTO postMessage(Long roomId, PostMessageRequestDTO request, Long userId) {
         log.info("User {} posting message in room {}", userId, roomId);
 
@@ -315,10 +382,53 @@ public class StudyRoomService {
 
         // Create message
         RoomMessageEntity message = roomMessageMapper.toEntity(request, roomId, userId);
-        RoomMessageEntity savedMessage = roomMessageRepo.save(message);
+        RoomMessageEntity savedMessage;
+        try {
+            savedMessage = writeAndBroadcast(message).orTimeout(postTimeoutMs, TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                // The request thread is released; the message may still be written and broadcast later
+                log.warn("Timed out waiting for message in room {} to be written", roomId);
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Message could not be saved in time, please try again");
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
         log.info("Message posted with id: {}", savedMessage.getId());
 
-        return roomMessageMapper.toDTO(savedMessage, userId);
+        return roomMessageMapper.toDTO(savedMessage, userId, false);
+    }
+
+    /**
+     * Post a message received over WebSocket
+     * Membership is checked against the membership cache and the insert is grouped
+     * with other messages; the saved message is broadcast with its id once written
+     */
+    public CompletableFuture<RoomMessageDTO> submitMessage(Long roomId, PostMessageRequestDTO request, Long userId) {
+        String text = request.getMessage();
+        if (text == null || text.isBlank()) {
+            throw new RuntimeException("Message cannot be empty");
+        }
+        if (text.length() > 5000) {
+            throw new RuntimeException("Message must be between 1 and 5000 characters");
+        }
+
+        if (!roomMembershipCache.canPost(roomId, userId)) {
+            throw new RuntimeException("You must be an active member of an active room to post messages");
+        }
+
+        RoomMessageEntity message = roomMessageMapper.toEntity(request, roomId, userId);
+        return writeAndBroadcast(message).thenApply(roomMessageMapper::toDTO);
+    }
+
+    /**
+     * Queue a message for the grouped writer and broadcast it once it is committed
+     * Subscribers get the viewer-neutral copy (canDelete is resolved per viewer over REST)
+     */
+    private CompletableFuture<RoomMessageEntity> writeAndBroadcast(RoomMessageEntity message) {
+        return roomMessageWriter.enqueue(message).thenApply(savedMessage -> {
+            roomBroadcaster.broadcastMessage(roomMessageMapper.toDTO(savedMessage));
+            return savedMessage;
+        });
     }
 
     /**
@@ -333,7 +443,112 @@ public class StudyRoomService {
         }
 
         List<RoomMessageEntity> messages = roomMessageRepo.findByRoomIdAndIsDeletedFalseOrderByCreatedAtAsc(roomId);
-        return roomMessageMapper.toDTOList(messages, currentUserId);
+        return toViewerDTOs(roomId, messages, currentUserId);
+    }
+
+    /**
+     * Highest message id in a room, from memory (used as the polling ETag)
+     */
+    public long getLatestMessageId(Long roomId) {
+        return latestMessageIds.get(roomId);
+    }
+
+    /**
+     * Get messages with an id above afterId (for polling)
+     * Answered without a query when nothing newer exists or the buffer covers it
+     */
+    public List<RoomMessageDTO> getMessagesAfter(Long roomId, Long afterId, Long currentUserId) {
+        log.debug("Fetching messages for room {} after id {}", roomId, afterId);
+        recordHeartbeat(roomId, currentUserId);
+
+        if (afterId >= latestMessageIds.get(roomId)) {
+            return List.of();
+        }
+
+        var buffered = recentMessageBuffer.after(roomId, afterId);
+        if (buffered.isPresent()) {
+            return forViewer(roomId, buffered.get(), currentUserId);
+        }
+
+        List<RoomMessageEntity> messages =
+                roomMessageRepo.findByRoomIdAndIdGreaterThanAndIsDeletedFalseOrderByIdAsc(roomId, afterId);
+        return toViewerDTOs(roomId, messages, currentUserId);
+    }
+
+    /**
+     * Long-poll for messages with an id above afterId
+     * Completes right away if there are any, otherwise when the next message in the
+     * room is committed, or with an empty list when the timeout expires
+     */
+    public DeferredResult<List<RoomMessageDTO>> waitForMessages(Long roomId, Long afterId, Long currentUserId) {
+        DeferredResult<List<RoomMessageDTO>> result = new DeferredResult<>(longPollTimeoutMs, List.of());
+
+        // Also fails for an unknown room before anything is registered
+        if (latestMessageIds.get(roomId) > afterId) {
+            result.setResult(getMessagesAfter(roomId, afterId, currentUserId));
+            return result;
+        }
+        recordHeartbeat(roomId, currentUserId);
+
+        // Resolved once here; wake-ups only copy the shared messages for this viewer
+        boolean viewerIsCreator = isCreator(roomId, currentUserId);
+        RoomMessageWaiters.Waiter waiter = new RoomMessageWaiters.Waiter(afterId,
+                messages -> result.setResult(roomMessageMapper.forViewer(messages, currentUserId, viewerIsCreator)),
+                result::setErrorResult,
+                () -> !result.isSetOrExpired());
+        result.onCompletion(() -> roomMessageWaiters.cancel(roomId, waiter));
+
+        // Register before checking again, so a message committed in between still wakes us
+        roomMessageWaiters.await(roomId, waiter);
+        if (latestMessageIds.get(roomId) > afterId) {
+            roomMessageWaiters.cancel(roomId, waiter);
+            result.setResult(getMessagesAfter(roomId, afterId, currentUserId));
+        }
+        return result;
+    }
+
+    /**
+     * Get one page of message history using (createdAt, id) cursors
+     * With no cursor the newest page is returned; before and after are exclusive
+     */
+    public RoomMessagePageDTO getMessagePage(Long roomId, String before, String after, Integer limit, Long currentUserId) {
+        log.info("Fetching message page for room {} - before: {}, after: {}, limit: {}", roomId, before, after, limit);
+
+        if (before != null && after != null) {
+            throw new IllegalArgumentException("Use either before or after, not both");
+        }
+        if (!studyRoomRepo.existsById(roomId)) {
+            throw new RuntimeException("Room not found with id: " + roomId);
+        }
+
+        int pageSize = Math.min(limit != null && limit > 0 ? limit : DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+
+        // One extra row tells whether there is another page
+        List<RoomMessageEntity> rows;
+        if (after != null) {
+            MessageCursor cursor = MessageCursor.decode(after);
+            rows = roomMessageRepo.findPageAfter(roomId, cursor.createdAt(), cursor.id(), pageSize + 1);
+        } else if (before != null) {
+            MessageCursor cursor = MessageCursor.decode(before);
+            rows = roomMessageRepo.findPageBefore(roomId, cursor.createdAt(), cursor.id(), pageSize + 1);
+        } else {
+            rows = roomMessageRepo.findLatestPage(roomId, pageSize + 1);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<RoomMessageEntity> page = new ArrayList<>(rows.subList(0, Math.min(pageSize, rows.size())));
+        if (after == null) {
+            // Backward pages are read newest first
+            Collections.reverse(page);
+        }
+
+        List<RoomMessageDTO> messages = toViewerDTOs(roomId, page, currentUserId);
+        return RoomMessagePageDTO.builder()
+                .messages(messages)
+                .olderCursor(messages.isEmpty() ? null : MessageCursor.of(messages.get(0)).encode())
+                .newerCursor(messages.isEmpty() ? null : MessageCursor.of(messages.get(messages.size() - 1)).encode())
+                .hasMore(hasMore)
+                .build();
     }
 
     /**
@@ -341,8 +556,16 @@ public class StudyRoomService {
      */
     public List<RoomMessageDTO> getMessagesSince(Long roomId, LocalDateTime since, Long currentUserId) {
         log.info("Fetching messages for room {} since {}", roomId, since);
+        recordHeartbeat(roomId, currentUserId);
+
+        // Served from the buffer unless it doesn't reach back far enough
+        var buffered = recentMessageBuffer.since(roomId, since);
+        if (buffered.isPresent()) {
+            return forViewer(roomId, buffered.get(), currentUserId);
+        }
+
         List<RoomMessageEntity> messages = roomMessageRepo.findMessagesSince(roomId, since);
-        return roomMessageMapper.toDTOList(messages, currentUserId);
+        return toViewerDTOs(roomId, messages, currentUserId);
     }
 
     // ========================================
@@ -369,9 +592,11 @@ public class StudyRoomService {
             throw new RuntimeException("You don't have permission to delete this message");
         }
 
-        // Soft delete
-        message.setIsDeleted(true);
-        roomMessageRepo.save(message);
+        // Soft delete; only the request that flips the row decrements the count
+        if (roomMessageRepo.softDelete(messageId, LocalDateTime.now()) == 1) {
+            studyRoomRepo.adjustMessageCount(message.getRoomId(), -1);
+            roomBroadcaster.broadcastEvent(message.getRoomId(), RoomEventDTO.Type.MESSAGE_DELETED, userId, messageId);
+        }
         log.info("Message {} deleted successfully", messageId);
     }
 
@@ -400,6 +625,7 @@ public class StudyRoomService {
         // Update fields
         studyRoomMapper.updateEntityFromDTO(room, request);
         StudyRoomEntity updatedRoom = studyRoomRepo.save(room);
+        eventPublisher.publishEvent(new RoomMembershipChangedEvent(roomId));
         log.info("Room {} updated successfully", roomId);
 
         return studyRoomMapper.toDTO(updatedRoom);
@@ -426,18 +652,57 @@ public class StudyRoomService {
         // Update status
         room.setStatus(RoomStatus.CLOSED);
         StudyRoomEntity closedRoom = studyRoomRepo.save(room);
+        eventPublisher.publishEvent(new RoomMembershipChangedEvent(roomId));
         log.info("Room {} closed successfully", roomId);
 
         // System message
-        RoomMessageEntity systemMessage = roomMessageMapper.createSystemMessage(
-                roomId,
-                "Room has been closed by the creator"
-        );
-        roomMessageRepo.save(systemMessage);
+        postSystemMessage(roomId, "Room has been closed by the creator");
+        roomBroadcaster.broadcastEvent(roomId, RoomEventDTO.Type.ROOM_CLOSED, userId, null);
+        studyTimeTracker.roomClosed(roomId);
 
         return studyRoomMapper.toDTO(closedRoom);
     }
 
+    /**
+     * Map messages of one room for a viewer, resolving the viewer's creator status once
+     */
+    private List<RoomMessageDTO> toViewerDTOs(Long roomId, List<RoomMessageEntity> messages, Long currentUserId) {
+        return roomMessageMapper.toDTOList(messages, currentUserId, !messages.isEmpty() && isCreator(roomId, currentUserId));
+    }
+
+    /**
+     * Copy buffered messages of one room for a viewer, resolving the viewer's creator status once
+     */
+    private List<RoomMessageDTO> forViewer(Long roomId, List<RoomMessageDTO> messages, Long currentUserId) {
+        return roomMessageMapper.forViewer(messages, currentUserId, !messages.isEmpty() && isCreator(roomId, currentUserId));
+    }
+
+    /**
+     * A poll from a member keeps their study time running (no database access)
+     */
+    private void recordHeartbeat(Long roomId, Long userId) {
+        if (userId != null && roomMembershipCache.canPost(roomId, userId)) {
+            studyTimeTracker.heartbeat(roomId, userId);
+        }
+    }
+
+    private boolean isCreator(Long roomId, Long userId) {
+        return userId != null && roomMemberRepo.isUserCreatorOfRoom(roomId, userId);
+    }
+
+    /**
+     * Queue a system message for the grouped writer once the surrounding transaction commits
+     * It goes through the writer like user messages, so message ids commit in order
+     * (polls by id rely on that); the writer counts it on the room and broadcasts it
+     */
+    private void postSystemMessage(Long roomId, String text) {
+        RoomMessageEntity systemMessage = roomMessageMapper.createSystemMessage(roomId, text);
+        RoomBroadcaster.afterCommit(() -> writeAndBroadcast(systemMessage).exceptionally(e -> {
+            log.warn("Failed to post system message in room {}: {}", roomId, e.getMessage());
+            return null;
+        }));
+    }
+
     // ========================================
     // MY ROOMS DASHBOARD
     // ========================================
@@ -468,9 +733,12 @@ public class StudyRoomService {
         // Get active memberships
         List<RoomMemberEntity> memberships = roomMemberRepo.findByUserIdAndIsActiveTrue(userId);
         
-        // Get room entities
-        List<StudyRoomEntity> rooms = memberships.stream()
-                .map(m -> studyRoomRepo.findById(m.getRoomId()).orElse(null))
+        // Get room entities in one query, keeping membership order
+        List<Long> roomIds = memberships.stream().map(RoomMemberEntity::getRoomId).toList();
+        Map<Long, StudyRoomEntity> roomsById = studyRoomRepo.findAllById(roomIds).stream()
+                .collect(Collectors.toMap(StudyRoomEntity::getId, Function.identity()));
+        List<StudyRoomEntity> rooms = roomIds.stream()
+                .map(roomsById::get)
                 .filter(r -> r != null)
                 .toList();
         
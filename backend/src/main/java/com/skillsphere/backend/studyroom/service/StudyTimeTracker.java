@@ -0,0 +1,239 @@
+package com.skillsphere.backend.studyroom.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Study time of room members, accumulated in memory and written to
+ * room_members.total_study_time in batches.
+ *
+ * A member is present while they have a WebSocket subscription to the room, or
+ * after a REST join as long as they keep polling (each poll is a heartbeat;
+ * without one for idle-timeout the REST presence ends at the last heartbeat).
+ * Presence changes and heartbeats only touch memory. Whole minutes are flushed
+ * on a schedule as one JDBC batch; remaining seconds carry over to the next flush.
+ */
+@Component
+@Slf4j
+public class StudyTimeTracker {
+
+    private static final long MINUTE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final String ADD_STUDY_TIME_SQL =
+            "UPDATE room_members SET total_study_time = COALESCE(total_study_time, 0) + ? "
+                    + "WHERE room_id = ? AND user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long idleTimeoutMillis;
+
+    private final Map<Key, Presence> presences = new ConcurrentHashMap<>();
+
+    public StudyTimeTracker(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${skillsphere.study-time.idle-timeout-minutes:5}") long idleTimeoutMinutes
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idleTimeoutMillis = Duration.ofMinutes(idleTimeoutMinutes).toMillis();
+
+        Gauge.builder("studyroom.study.time.presences", presences, Map::size)
+                .description("Room members whose study time is being tracked")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A WebSocket session of the member subscribed to the room
+     */
+    public void connected(Long roomId, Long userId) {
+        update(roomId, userId, (presence, now) -> presence.connections++);
+    }
+
+    /**
+     * A WebSocket session of the member unsubscribed or disconnected
+     */
+    public void disconnected(Long roomId, Long userId) {
+        update(roomId, userId, (presence, now) -> presence.connections = Math.max(0, presence.connections - 1));
+    }
+
+    /**
+     * The member joined over REST
+     */
+    public void joined(Long roomId, Long userId) {
+        update(roomId, userId, (presence, now) -> {
+            presence.restActive = true;
+            presence.lastSeenMillis = now;
+        });
+    }
+
+    /**
+     * The member polled the room (keeps a REST presence alive)
+     */
+    public void heartbeat(Long roomId, Long userId) {
+        update(roomId, userId, (presence, now) -> {
+            presence.restActive = true;
+            presence.lastSeenMillis = now;
+        });
+    }
+
+    /**
+     * The member left: stop tracking and hand back the unflushed time, rounded to minutes
+     * The caller adds it to the membership in its own transaction
+     */
+    public int left(Long roomId, Long userId) {
+        long now = System.currentTimeMillis();
+        Presence presence = presences.remove(new Key(roomId, userId));
+        if (presence == null) {
+            return 0;
+        }
+        synchronized (presence) {
+            presence.accrue(now, idleTimeoutMillis);
+            return (int) Math.round((double) presence.pendingMillis / MINUTE_MILLIS);
+        }
+    }
+
+    /**
+     * The room closed: end every presence in it (their time is written on the next flush)
+     */
+    public void roomClosed(Long roomId) {
+        long now = System.currentTimeMillis();
+        presences.forEach((key, presence) -> {
+            if (key.roomId().equals(roomId)) {
+                synchronized (presence) {
+                    presence.accrue(now, idleTimeoutMillis);
+                    presence.connections = 0;
+                    presence.restActive = false;
+                }
+            }
+        });
+    }
+
+    /**
+     * Write accumulated whole minutes to room_members in one batch
+     */
+    @Scheduled(fixedDelayString = "${skillsphere.study-time.flush-interval-ms:60000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        List<Delta> deltas = new ArrayList<>();
+
+        presences.forEach((key, presence) -> {
+            synchronized (presence) {
+                presence.accrue(now, idleTimeoutMillis);
+                long minutes;
+                if (presence.isOpen()) {
+                    minutes = presence.pendingMillis / MINUTE_MILLIS;
+                    presence.pendingMillis -= minutes * MINUTE_MILLIS;
+                } else {
+                    // Ended: write the rest (rounded) and stop tracking
+                    minutes = Math.round((double) presence.pendingMillis / MINUTE_MILLIS);
+                    presence.pendingMillis = 0;
+                    presences.remove(key, presence);
+                }
+                if (minutes > 0) {
+                    deltas.add(new Delta(key, (int) minutes));
+                }
+            }
+        });
+
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(ADD_STUDY_TIME_SQL, deltas, deltas.size(), (ps, delta) -> {
+                ps.setInt(1, delta.minutes());
+                ps.setLong(2, delta.key().roomId());
+                ps.setLong(3, delta.key().userId());
+            });
+            log.debug("Flushed study time for {} room member(s)", deltas.size());
+        } catch (Exception e) {
+            // Keep the minutes for the next attempt
+            log.warn("Failed to flush study time for {} room member(s): {}", deltas.size(), e.getMessage());
+            deltas.forEach(delta -> update(delta.key().roomId(), delta.key().userId(),
+                    (presence, time) -> presence.pendingMillis += delta.minutes() * MINUTE_MILLIS));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Write whatever was accumulated, including partial minutes of open presences
+        presences.values().forEach(presence -> {
+            synchronized (presence) {
+                presence.connections = 0;
+                presence.restActive = false;
+            }
+        });
+        flush();
+    }
+
+    private void update(Long roomId, Long userId, Change change) {
+        long now = System.currentTimeMillis();
+        Key key = new Key(roomId, userId);
+        while (true) {
+            Presence presence = presences.computeIfAbsent(key, k -> new Presence(now));
+            synchronized (presence) {
+                // Removed by a flush or leave in the meantime; retry with a fresh entry
+                if (presences.get(key) != presence) {
+                    continue;
+                }
+                presence.accrue(now, idleTimeoutMillis);
+                change.apply(presence, now);
+                return;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Change {
+        void apply(Presence presence, long now);
+    }
+
+    private record Key(Long roomId, Long userId) {
+    }
+
+    private record Delta(Key key, int minutes) {
+    }
+
+    private static final class Presence {
+        private int connections;        // WebSocket subscriptions to the room
+        private boolean restActive;     // Joined or polling over REST
+        private long lastSeenMillis;    // Last REST heartbeat
+        private long markMillis;        // Time accounted up to
+        private long pendingMillis;     // Accounted, not yet written
+
+        private Presence(long now) {
+            this.markMillis = now;
+            this.lastSeenMillis = now;
+        }
+
+        private boolean isOpen() {
+            return connections > 0 || restActive;
+        }
+
+        /**
+         * Account for the time since the last mark
+         */
+        private void accrue(long now, long idleTimeoutMillis) {
+            if (connections == 0 && restActive && now - lastSeenMillis > idleTimeoutMillis) {
+                // REST presence went idle: it ended at the last heartbeat
+                pendingMillis += Math.max(0, lastSeenMillis - markMillis);
+                restActive = false;
+            } else if (isOpen()) {
+                pendingMillis += now - markMillis;
+            }
+            markMillis = now;
+        }
+    }
+}
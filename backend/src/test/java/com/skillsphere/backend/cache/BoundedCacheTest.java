@@ -0,0 +1,87 @@
+package com.skillsphere.backend.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedCacheTest {
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2, null);
+        cache.put("a", 1);
+        cache.put("b", 2);
+
+        // Reading "a" makes "b" the eldest
+        assertThat(cache.getIfPresent("a")).isEqualTo(1);
+        cache.put("c", 3);
+
+        assertThat(cache.getIfPresent("b")).isNull();
+        assertThat(cache.getIfPresent("a")).isEqualTo(1);
+        assertThat(cache.getIfPresent("c")).isEqualTo(3);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void expiresEntriesAfterWrite() throws InterruptedException {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, Duration.ofMillis(20));
+        cache.put("a", 1);
+        assertThat(cache.getIfPresent("a")).isEqualTo(1);
+
+        Thread.sleep(60);
+
+        assertThat(cache.getIfPresent("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void readsDoNotExtendTheLifetime() throws InterruptedException {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, Duration.ofMillis(80));
+        cache.put("a", 1);
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(30);
+            cache.getIfPresent("a");
+        }
+        assertThat(cache.getIfPresent("a")).isNull();
+    }
+
+    @Test
+    void loaderRunsOnMissOnlyAndNullIsNotCached() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, Duration.ZERO);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("a", key -> loads.incrementAndGet())).isEqualTo(1);
+        assertThat(cache.get("a", key -> loads.incrementAndGet())).isEqualTo(1);
+        assertThat(loads).hasValue(1);
+
+        assertThat(cache.get("missing", key -> null)).isNull();
+        assertThat(cache.getIfPresent("missing")).isNull();
+
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(3);
+    }
+
+    @Test
+    void invalidateRemovesEntries() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, null);
+        cache.put("a", 1);
+        cache.put("b", 2);
+
+        cache.invalidate("a");
+        assertThat(cache.getIfPresent("a")).isNull();
+        assertThat(cache.getIfPresent("b")).isEqualTo(2);
+
+        cache.invalidateAll();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void rejectsNonPositiveSize() {
+        assertThatThrownBy(() -> new BoundedCache<>(0, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
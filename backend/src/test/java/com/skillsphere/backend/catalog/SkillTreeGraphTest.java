@@ -0,0 +1,107 @@
+package com.skillsphere.backend.catalog;
+
+import com.skillsphere.backend.entity.SkillNodeEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SkillTreeGraphTest {
+
+    @Test
+    void linearTreeUnlocksTheNextOrderIndex() {
+        // No parent links: each node depends on the node at orderIndex - 1
+        SkillTreeGraph graph = SkillTreeGraph.compile(List.of(
+                node(1L, 0, null, false),
+                node(2L, 1, null, false),
+                node(3L, 2, null, false)));
+
+        assertThat(graph.prerequisitesOf(0)).isEmpty();
+        assertThat(graph.prerequisitesOf(2)).containsExactly(1);
+        assertThat(graph.lockedNodes(bits())).isEqualTo(bits(1, 2));
+
+        assertThat(graph.newlyUnlocked(0, bits(0))).containsExactly(1);
+        assertThat(graph.lockedNodes(bits(0))).isEqualTo(bits(2));
+        assertThat(graph.newlyUnlocked(1, bits(0, 1))).containsExactly(2);
+        assertThat(graph.newlyUnlocked(2, bits(0, 1, 2))).isEmpty();
+    }
+
+    @Test
+    void parentLinksFormADag() {
+        // 10 -> 11, 10 -> 12, 11 -> 13
+        SkillTreeGraph graph = SkillTreeGraph.compile(List.of(
+                node(10L, 0, null, false),
+                node(11L, 1, 10L, false),
+                node(12L, 2, 10L, false),
+                node(13L, 3, 11L, false)));
+
+        assertThat(graph.lockedNodes(bits())).isEqualTo(bits(1, 2, 3));
+        assertThat(graph.newlyUnlocked(0, bits(0))).containsExactlyInAnyOrder(1, 2);
+        assertThat(graph.newlyUnlocked(1, bits(0, 1))).containsExactly(3);
+        // Completing a leaf unlocks nothing
+        assertThat(graph.newlyUnlocked(2, bits(0, 2))).isEmpty();
+    }
+
+    @Test
+    void newlyUnlockedSkipsDependentsThatAreCompletedOrStillGated() {
+        // 20 -> 21 and 20 -> 22; 21 is already completed
+        SkillTreeGraph graph = SkillTreeGraph.compile(List.of(
+                node(20L, 0, null, false),
+                node(21L, 1, 20L, false),
+                node(22L, 2, 20L, false)));
+        assertThat(graph.newlyUnlocked(0, bits(0, 1))).containsExactly(2);
+
+        // Linear tree where two nodes share order index 1: only the first acts as predecessor
+        SkillTreeGraph shared = SkillTreeGraph.compile(List.of(
+                node(30L, 0, null, false),
+                node(31L, 1, null, false),
+                node(32L, 1, null, false),
+                node(33L, 2, null, false)));
+        assertThat(shared.prerequisitesOf(3)).containsExactly(1);
+        assertThat(shared.newlyUnlocked(0, bits(0))).containsExactlyInAnyOrder(1, 2);
+    }
+
+    @Test
+    void lockedFlagOnlyGatesNodesWithoutPrerequisites() {
+        SkillTreeGraph graph = SkillTreeGraph.compile(List.of(
+                node(40L, 0, null, false),
+                node(41L, 1, 40L, true),    // gated by its parent, flag is redundant
+                node(42L, 2, null, true),   // root with the flag: always locked
+                node(43L, 3, null, false)));  // root without the flag: open
+
+        assertThat(graph.isLocked(1, bits())).isTrue();
+        assertThat(graph.isLocked(1, bits(0))).isFalse();
+        assertThat(graph.isLocked(2, bits(0, 1, 3))).isTrue();
+        assertThat(graph.isLocked(3, bits())).isFalse();
+    }
+
+    @Test
+    void firstLinearNodeIsNeverLocked() {
+        SkillTreeGraph graph = SkillTreeGraph.compile(List.of(
+                node(50L, 0, null, true),
+                node(51L, 1, null, true)));
+
+        assertThat(graph.isLocked(0, bits())).isFalse();
+        assertThat(graph.isLocked(1, bits())).isTrue();
+        assertThat(graph.newlyUnlocked(0, bits(0))).containsExactly(1);
+    }
+
+    private static SkillNodeSnapshot node(Long nodeId, int orderIndex, Long parentNodeId, boolean locked) {
+        SkillNodeEntity entity = new SkillNodeEntity();
+        entity.setNodeId(nodeId);
+        entity.setOrderIndex(orderIndex);
+        entity.setParentNodeId(parentNodeId);
+        entity.setIsLocked(locked);
+        return SkillNodeSnapshot.of(entity);
+    }
+
+    private static BitSet bits(int... indexes) {
+        BitSet bits = new BitSet();
+        for (int index : indexes) {
+            bits.set(index);
+        }
+        return bits;
+    }
+}
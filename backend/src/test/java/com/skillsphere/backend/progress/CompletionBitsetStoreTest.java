@@ -0,0 +1,204 @@
+package com.skillsphere.backend.progress;
+
+import com.skillsphere.backend.catalog.SkillTreeCatalogCache;
+import com.skillsphere.backend.catalog.SkillTreeSnapshot;
+import com.skillsphere.backend.entity.SkillNodeEntity;
+import com.skillsphere.backend.entity.SkillTreeEntity;
+import com.skillsphere.backend.entity.UserNodeProgressEntity;
+import com.skillsphere.backend.entity.UserSkillTreeEntity;
+import com.skillsphere.backend.repo.UserNodeProgressRepo;
+import com.skillsphere.backend.repo.UserSkillTreeRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CompletionBitsetStoreTest {
+
+    private static final Long USER_ID = 7L;
+    private static final Long TREE_ID = 1L;
+
+    @Mock private UserNodeProgressRepo userNodeProgressRepo;
+    @Mock private UserSkillTreeRepo userSkillTreeRepo;
+    @Mock private SkillTreeCatalogCache catalogCache;
+
+    private CompletionBitsetStore store;
+    private SkillTreeSnapshot tree;
+
+    @BeforeEach
+    void setUp() {
+        store = new CompletionBitsetStore(userNodeProgressRepo, userSkillTreeRepo, catalogCache,
+                new SimpleMeterRegistry(), 100, 60);
+
+        // Order index decides the bit position, not the node id
+        SkillTreeEntity treeEntity = new SkillTreeEntity();
+        treeEntity.setTreeId(TREE_ID);
+        tree = SkillTreeSnapshot.of(treeEntity, List.of(
+                node(30L, 2), node(10L, 0), node(20L, 1), node(40L, 3)));
+    }
+
+    @Test
+    void toBitSetMapsCompletedRowsToNodePositions() {
+        BitSet bits = CompletionBitsetStore.toBitSet(tree, List.of(
+                progress(10L, true),
+                progress(30L, true),
+                progress(20L, false),
+                progress(99L, true)));  // not in the tree
+
+        assertThat(bits).isEqualTo(bits(0, 2));
+    }
+
+    @Test
+    void decodesTheStoredBitmapWhenTheSignatureMatches() {
+        UserSkillTreeEntity enrollment = enrollment(bits(1, 3).toByteArray(), tree.getNodeSignature());
+
+        assertThat(store.getCompleted(tree, enrollment)).isEqualTo(bits(1, 3));
+        verify(userNodeProgressRepo, never()).findByUserIdAndTreeId(anyLong(), anyLong());
+    }
+
+    @Test
+    void rebuildsFromRowsWhenTheTreeChanged() {
+        UserSkillTreeEntity enrollment = enrollment(bits(1, 3).toByteArray(), tree.getNodeSignature() + 1);
+        when(userNodeProgressRepo.findByUserIdAndTreeId(USER_ID, TREE_ID))
+                .thenReturn(List.of(progress(10L, true)));
+
+        assertThat(store.getCompleted(tree, enrollment)).isEqualTo(bits(0));
+
+        // Served from memory afterwards
+        assertThat(store.getCompleted(tree, enrollment)).isEqualTo(bits(0));
+        verify(userNodeProgressRepo, times(1)).findByUserIdAndTreeId(USER_ID, TREE_ID);
+    }
+
+    @Test
+    void rebuiltBitsetIsWrittenBackWithTheCurrentSignature() {
+        UserSkillTreeEntity enrollment = enrollment(bits(1, 3).toByteArray(), tree.getNodeSignature() + 1);
+        when(userNodeProgressRepo.findByUserIdAndTreeId(USER_ID, TREE_ID))
+                .thenReturn(List.of(progress(10L, true)));
+        when(catalogCache.getTree(TREE_ID)).thenReturn(Optional.of(tree));
+        store.getCompleted(tree, enrollment);
+
+        store.flushDirty();
+
+        ArgumentCaptor<byte[]> bitmap = ArgumentCaptor.forClass(byte[].class);
+        verify(userSkillTreeRepo).updateCompletionBitmap(
+                eq(USER_ID), eq(TREE_ID), bitmap.capture(), eq(tree.getNodeSignature()));
+        assertThat(BitSet.valueOf(bitmap.getValue())).isEqualTo(bits(0));
+    }
+
+    @Test
+    void failedWriteBackIsRetriedOnTheNextFlush() {
+        UserSkillTreeEntity enrollment = enrollment(null, null);
+        when(userNodeProgressRepo.findByUserIdAndTreeId(USER_ID, TREE_ID))
+                .thenReturn(List.of(progress(10L, true)));
+        when(catalogCache.getTree(TREE_ID)).thenReturn(Optional.of(tree));
+        when(userSkillTreeRepo.updateCompletionBitmap(any(), any(), any(), any()))
+                .thenThrow(new RuntimeException("connection reset"))
+                .thenReturn(1);
+        store.getCompleted(tree, enrollment);
+
+        store.flushDirty();
+        store.flushDirty();
+        store.flushDirty();
+
+        verify(userSkillTreeRepo, times(2)).updateCompletionBitmap(
+                eq(USER_ID), eq(TREE_ID), any(), eq(tree.getNodeSignature()));
+    }
+
+    @Test
+    void returnedBitsetsAreCopies() {
+        UserSkillTreeEntity enrollment = enrollment(bits(0).toByteArray(), tree.getNodeSignature());
+
+        store.getCompleted(tree, enrollment).set(3);
+
+        assertThat(store.getCompleted(tree, enrollment)).isEqualTo(bits(0));
+    }
+
+    @Test
+    void completionUpdatesTheCachedBitset() {
+        UserSkillTreeEntity enrollment = enrollment(bits(0).toByteArray(), tree.getNodeSignature());
+        store.getCompleted(tree, enrollment);
+        when(catalogCache.getTree(TREE_ID)).thenReturn(Optional.of(tree));
+
+        store.onNodeCompleted(new NodeCompletedEvent(USER_ID, TREE_ID, 20L));
+
+        assertThat(store.getCompleted(tree, enrollment)).isEqualTo(bits(0, 1));
+    }
+
+    @Test
+    void flushStoresABitmapThatDecodesToTheRows() {
+        UserSkillTreeEntity enrollment = enrollment(null, null);
+        when(userNodeProgressRepo.findByUserIdAndTreeId(USER_ID, TREE_ID))
+                .thenReturn(List.of(progress(20L, true), progress(40L, true)));
+        when(catalogCache.getTree(TREE_ID)).thenReturn(Optional.of(tree));
+        store.getCompleted(tree, enrollment);
+
+        store.flushDirty();
+
+        ArgumentCaptor<byte[]> bitmap = ArgumentCaptor.forClass(byte[].class);
+        verify(userSkillTreeRepo).updateCompletionBitmap(
+                eq(USER_ID), eq(TREE_ID), bitmap.capture(), eq(tree.getNodeSignature()));
+        assertThat(BitSet.valueOf(bitmap.getValue())).isEqualTo(bits(1, 3));
+
+        // Nothing left to write
+        store.flushDirty();
+        verify(userSkillTreeRepo, times(1)).updateCompletionBitmap(any(), any(), any(), any());
+    }
+
+    @Test
+    void bitmapRoundTripsBeyondOneWord() {
+        BitSet bits = bits(0, 63, 64, 129, 1000);
+
+        assertThat(BitSet.valueOf(bits.toByteArray())).isEqualTo(bits);
+        assertThat(BitSet.valueOf(new BitSet().toByteArray())).isEqualTo(new BitSet());
+    }
+
+    private static UserSkillTreeEntity enrollment(byte[] bitmap, Long signature) {
+        UserSkillTreeEntity enrollment = new UserSkillTreeEntity();
+        enrollment.setUserId(USER_ID);
+        enrollment.setTreeId(TREE_ID);
+        enrollment.setCompletedNodesBitmap(bitmap);
+        enrollment.setBitmapSignature(signature);
+        return enrollment;
+    }
+
+    private static UserNodeProgressEntity progress(Long nodeId, boolean completed) {
+        UserNodeProgressEntity progress = new UserNodeProgressEntity();
+        progress.setUserId(USER_ID);
+        progress.setNodeId(nodeId);
+        progress.setCompleted(completed);
+        return progress;
+    }
+
+    private static SkillNodeEntity node(Long nodeId, int orderIndex) {
+        SkillNodeEntity node = new SkillNodeEntity();
+        node.setNodeId(nodeId);
+        node.setTreeId(TREE_ID);
+        node.setOrderIndex(orderIndex);
+        return node;
+    }
+
+    private static BitSet bits(int... indexes) {
+        BitSet bits = new BitSet();
+        for (int index : indexes) {
+            bits.set(index);
+        }
+        return bits;
+    }
+}
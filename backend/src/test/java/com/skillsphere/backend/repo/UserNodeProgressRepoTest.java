@@ -0,0 +1,144 @@
+package com.skillsphere.backend.repo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * markCompleted relies on Postgres' ON CONFLICT ... DO UPDATE ... WHERE, which H2 does not
+ * support, so it runs against a real Postgres (skipped when Docker is not available).
+ * Each call commits on its own, like concurrent requests do.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserNodeProgressRepoTest {
+
+    private static final long USER_ID = 7L;
+    private static final LocalDateTime COMPLETED_AT = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private UserNodeProgressRepo userNodeProgressRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long nodeId;
+
+    @BeforeEach
+    void insertNode() {
+        Long treeId = jdbcTemplate.queryForObject(
+                "INSERT INTO skill_trees (title) VALUES ('Tree') RETURNING tree_id", Long.class);
+        nodeId = jdbcTemplate.queryForObject(
+                "INSERT INTO skill_nodes (tree_id, title, order_index) VALUES (?, 'Node', 0) RETURNING node_id",
+                Long.class, treeId);
+    }
+
+    @AfterEach
+    void deleteRows() {
+        jdbcTemplate.update("DELETE FROM user_node_progress");
+        jdbcTemplate.update("DELETE FROM skill_nodes");
+        jdbcTemplate.update("DELETE FROM skill_trees");
+    }
+
+    @Test
+    void onlyTheFirstCompletionChangesTheRow() {
+        assertThat(markCompleted()).isEqualTo(1);
+        assertThat(markCompleted()).isZero();
+
+        assertThat(completed()).isTrue();
+        assertThat(rows()).isEqualTo(1);
+    }
+
+    @Test
+    void completingAStartedNodeFlipsItOnce() {
+        assertThat(inTransaction(() -> userNodeProgressRepo.insertStartedIfAbsent(USER_ID, nodeId))).isEqualTo(1);
+        assertThat(inTransaction(() -> userNodeProgressRepo.insertStartedIfAbsent(USER_ID, nodeId))).isZero();
+        assertThat(completed()).isFalse();
+
+        assertThat(markCompleted()).isEqualTo(1);
+        assertThat(markCompleted()).isZero();
+        assertThat(completed()).isTrue();
+        assertThat(rows()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentCompletionsChangeTheRowExactlyOnce() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                Callable<Integer> call = () -> {
+                    start.await();
+                    return markCompleted();
+                };
+                results.add(executor.submit(call));
+            }
+            start.countDown();
+
+            int changed = 0;
+            for (Future<Integer> result : results) {
+                changed += result.get(30, TimeUnit.SECONDS);
+            }
+            assertThat(changed).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(completed()).isTrue();
+        assertThat(rows()).isEqualTo(1);
+    }
+
+    private int markCompleted() {
+        return inTransaction(() -> userNodeProgressRepo.markCompleted(USER_ID, nodeId, COMPLETED_AT));
+    }
+
+    private int inTransaction(Supplier<Integer> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    private Boolean completed() {
+        return jdbcTemplate.queryForObject(
+                "SELECT completed FROM user_node_progress WHERE user_id = ? AND node_id = ?",
+                Boolean.class, USER_ID, nodeId);
+    }
+
+    private Integer rows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_node_progress", Integer.class);
+    }
+}
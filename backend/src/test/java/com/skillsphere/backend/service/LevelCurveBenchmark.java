@@ -0,0 +1,93 @@
+package com.skillsphere.backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Level and title after an XP grant: the closed-form LevelCurve against the
+ * per-level loop it replaced, from small grants up to bulk awards.
+ *
+ * Run main() from the IDE, or:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main LevelCurveBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelCurveBenchmark {
+
+    private final LevelCurve levelCurve = new LevelCurve();
+
+    // Starting point: level 3, partway into it
+    private int level = 3;
+    private int currentXp = 120;
+
+    @Param({"100", "10000", "1000000", "100000000"})
+    private long grantedXp;
+
+    @Benchmark
+    public void closedForm(Blackhole blackhole) {
+        int newLevel = levelCurve.levelAfter(level, currentXp, grantedXp);
+        blackhole.consume(newLevel);
+        blackhole.consume(levelCurve.titleForLevel(newLevel));
+    }
+
+    @Benchmark
+    public void perLevelLoop(Blackhole blackhole) {
+        int newLevel = level;
+        long xp = currentXp + grantedXp;
+        long xpToNextLevel = 100 + (newLevel - 1) * 50L;
+        String title = null;
+        while (xp >= xpToNextLevel) {
+            xp -= xpToNextLevel;
+            newLevel++;
+            xpToNextLevel = 100 + (newLevel - 1) * 50L;
+            title = loopTitle(newLevel);
+        }
+        blackhole.consume(newLevel);
+        blackhole.consume(title);
+    }
+
+    /**
+     * The title ladder updateTitle walked after every level-up
+     */
+    private static String loopTitle(int level) {
+        if (level >= 50) {
+            return "Master Builder";
+        } else if (level >= 40) {
+            return "Expert Coder";
+        } else if (level >= 30) {
+            return "Senior Developer";
+        } else if (level >= 20) {
+            return "Skilled Craftsman";
+        } else if (level >= 10) {
+            return "Aspiring Developer";
+        } else if (level >= 5) {
+            return "Eager Learner";
+        }
+        return "Novice Learner";
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LevelCurveBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,156 @@
+package com.skillsphere.backend.service;
+
+import com.skillsphere.backend.entity.UserProfileEntity;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the closed-form curve against the per-level loop it replaced
+ */
+class LevelCurveTest {
+
+    private final LevelCurve levelCurve = new LevelCurve();
+
+    @Test
+    void xpForNextLevelMatchesTheOldStep() {
+        for (int level = 1; level <= 500; level++) {
+            assertThat(levelCurve.xpForNextLevel(level)).isEqualTo(100 + (level - 1) * 50);
+        }
+    }
+
+    @Test
+    void xpToReachLevelIsTheSumOfSteps() {
+        long total = 0;
+        for (int level = 1; level <= 2000; level++) {
+            assertThat(levelCurve.xpToReachLevel(level)).as("level %d", level).isEqualTo(total);
+            total += 100 + (level - 1) * 50L;
+        }
+    }
+
+    @Test
+    void levelForXpMatchesTheLoopAtAndAroundEveryThreshold() {
+        for (int level = 1; level <= 2000; level++) {
+            long threshold = levelCurve.xpToReachLevel(level);
+            for (long xp = threshold - 1; xp <= threshold + 1; xp++) {
+                assertThat(levelCurve.levelForXp(xp)).as("xp %d", xp).isEqualTo(loopLevel(1, 0, xp));
+            }
+        }
+        assertThat(levelCurve.levelForXp(0)).isEqualTo(1);
+        assertThat(levelCurve.levelForXp(-5)).isEqualTo(1);
+        assertThat(levelCurve.levelForXp(99)).isEqualTo(1);
+        assertThat(levelCurve.levelForXp(100)).isEqualTo(2);
+        assertThat(levelCurve.levelForXp(250)).isEqualTo(3);
+    }
+
+    @Test
+    void levelForXpMatchesTheLoopOverASweep() {
+        for (long xp = 0; xp <= 200_000; xp += 7) {
+            assertThat(levelCurve.levelForXp(xp)).as("xp %d", xp).isEqualTo(loopLevel(1, 0, xp));
+        }
+    }
+
+    @Test
+    void levelAfterMatchesTheLoopFromAnyStartingPoint() {
+        int[] grants = {0, 1, 49, 50, 99, 100, 101, 150, 1_000, 12_345, 250_000};
+        for (int level = 1; level <= 60; level++) {
+            int step = levelCurve.xpForNextLevel(level);
+            for (int currentXp : new int[]{0, 1, step / 2, step - 1}) {
+                for (int grant : grants) {
+                    assertThat(levelCurve.levelAfter(level, currentXp, grant))
+                            .as("level %d, currentXp %d, grant %d", level, currentXp, grant)
+                            .isEqualTo(loopLevel(level, currentXp, grant));
+                }
+            }
+        }
+    }
+
+    @Test
+    void levelAfterExactlyAtThresholdLevelsUp() {
+        assertThat(levelCurve.levelAfter(1, 0, 100)).isEqualTo(2);
+        assertThat(levelCurve.levelAfter(1, 99, 1)).isEqualTo(2);
+        assertThat(levelCurve.levelAfter(1, 0, 99)).isEqualTo(1);
+        assertThat(levelCurve.levelAfter(2, 149, 1)).isEqualTo(3);
+        assertThat(levelCurve.levelAfter(2, 0, 150 + 200)).isEqualTo(4);
+    }
+
+    @Test
+    void applyXpMatchesTheOldLevelUpLoop() {
+        UserProfileService userProfileService = new UserProfileService(null, null, levelCurve);
+        int[] grants = {1, 99, 100, 101, 349, 350, 5_000, 123_456};
+        for (int level = 1; level <= 55; level++) {
+            for (int grant : grants) {
+                UserProfileEntity profile = profile(level, levelCurve.xpForNextLevel(level) - 1);
+                UserProfileEntity expected = profile(level, levelCurve.xpForNextLevel(level) - 1);
+                loopApplyXp(expected, grant);
+
+                int levelsGained = userProfileService.applyXp(profile, grant);
+
+                assertThat(levelsGained).isEqualTo(expected.getLevel() - level);
+                assertThat(profile.getLevel()).isEqualTo(expected.getLevel());
+                assertThat(profile.getCurrentXp()).isEqualTo(expected.getCurrentXp());
+                assertThat(profile.getXpToNextLevel()).isEqualTo(expected.getXpToNextLevel());
+                assertThat(profile.getTotalXp()).isEqualTo(expected.getTotalXp());
+                assertThat(profile.getUserTitle()).isEqualTo(expected.getUserTitle());
+            }
+        }
+    }
+
+    @Test
+    void titlesChangeAtTheOldLevels() {
+        for (int level = 1; level <= 80; level++) {
+            assertThat(levelCurve.titleForLevel(level)).as("level %d", level).isEqualTo(loopTitle(level));
+        }
+    }
+
+    // ----- The implementation LevelCurve replaced -----
+
+    private static int loopLevel(int level, long currentXp, long gainedXp) {
+        long xp = currentXp + gainedXp;
+        long xpToNextLevel = 100 + (level - 1) * 50L;
+        while (xp >= xpToNextLevel) {
+            xp -= xpToNextLevel;
+            level++;
+            xpToNextLevel = 100 + (level - 1) * 50L;
+        }
+        return level;
+    }
+
+    private static void loopApplyXp(UserProfileEntity profile, int xpAmount) {
+        profile.setTotalXp(profile.getTotalXp() + xpAmount);
+        profile.setCurrentXp(profile.getCurrentXp() + xpAmount);
+        while (profile.getCurrentXp() >= profile.getXpToNextLevel()) {
+            profile.setCurrentXp(profile.getCurrentXp() - profile.getXpToNextLevel());
+            profile.setLevel(profile.getLevel() + 1);
+            profile.setXpToNextLevel(100 + (profile.getLevel() - 1) * 50);
+            profile.setUserTitle(loopTitle(profile.getLevel()));
+        }
+    }
+
+    private static String loopTitle(int level) {
+        if (level >= 50) {
+            return "Master Builder";
+        } else if (level >= 40) {
+            return "Expert Coder";
+        } else if (level >= 30) {
+            return "Senior Developer";
+        } else if (level >= 20) {
+            return "Skilled Craftsman";
+        } else if (level >= 10) {
+            return "Aspiring Developer";
+        } else if (level >= 5) {
+            return "Eager Learner";
+        }
+        return "Novice Learner";
+    }
+
+    private UserProfileEntity profile(int level, int currentXp) {
+        UserProfileEntity profile = new UserProfileEntity();
+        profile.setLevel(level);
+        profile.setCurrentXp(currentXp);
+        profile.setTotalXp((int) levelCurve.xpToReachLevel(level) + currentXp);
+        profile.setXpToNextLevel(levelCurve.xpForNextLevel(level));
+        profile.setUserTitle(loopTitle(level));
+        return profile;
+    }
+}
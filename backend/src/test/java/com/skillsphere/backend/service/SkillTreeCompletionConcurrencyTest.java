@@ -0,0 +1,174 @@
+package com.skillsphere.backend.service;
+
+import com.skillsphere.backend.catalog.SkillTreeCatalogCache;
+import com.skillsphere.backend.dto.CompleteNodeResponseDTO;
+import com.skillsphere.backend.entity.XpEventEntity.XpSource;
+import com.skillsphere.backend.mapper.SkillTreeMapper;
+import com.skillsphere.backend.progress.CompletionBitsetStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Concurrent completeNode calls against a real Postgres: the ON CONFLICT guard in
+ * markCompleted lets exactly one duplicate through, and the incrementProgress row lock
+ * serialises completions of different nodes (skipped when Docker is not available).
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SkillTreeService.class, SkillTreeCatalogCache.class, CompletionBitsetStore.class,
+        SkillTreeMapper.class, LevelCurve.class, SkillTreeCompletionConcurrencyTest.Metrics.class})
+class SkillTreeCompletionConcurrencyTest {
+
+    private static final long USER_ID = 7L;
+    private static final int THREADS = 16;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockitoBean
+    private XpEventService xpEventService;
+
+    @Autowired
+    private SkillTreeService skillTreeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long treeId;
+    private final List<Long> nodeIds = new ArrayList<>();
+
+    @BeforeEach
+    void insertTree() {
+        treeId = jdbcTemplate.queryForObject(
+                "INSERT INTO skill_trees (title, total_nodes) VALUES ('Tree', 3) RETURNING tree_id", Long.class);
+        for (int i = 0; i < 3; i++) {
+            nodeIds.add(jdbcTemplate.queryForObject(
+                    "INSERT INTO skill_nodes (tree_id, title, order_index, xp_reward) VALUES (?, ?, ?, 20) RETURNING node_id",
+                    Long.class, treeId, "Node " + i, i));
+        }
+        jdbcTemplate.update("INSERT INTO user_skill_trees (user_id, tree_id, progress_percentage, nodes_completed, "
+                + "status, xp_earned, version) VALUES (?, ?, 0, 0, 'ACTIVE', 0, 0)", USER_ID, treeId);
+        jdbcTemplate.update("INSERT INTO user_profile (user_id, level, total_xp, current_xp, xp_to_next_level) "
+                + "VALUES (?, 1, 0, 0, 100)", USER_ID);
+    }
+
+    @AfterEach
+    void deleteRows() {
+        jdbcTemplate.update("DELETE FROM user_node_progress");
+        jdbcTemplate.update("DELETE FROM user_skill_trees");
+        jdbcTemplate.update("DELETE FROM user_profile");
+        jdbcTemplate.update("DELETE FROM skill_nodes");
+        jdbcTemplate.update("DELETE FROM skill_trees");
+    }
+
+    @Test
+    void concurrentDuplicateCompletionsAwardXpOnce() throws Exception {
+        Long nodeId = nodeIds.get(0);
+
+        List<CompleteNodeResponseDTO> responses = completeConcurrently(List.of(nodeId), THREADS);
+
+        assertThat(responses).allMatch(CompleteNodeResponseDTO::getSuccess);
+        assertThat(responses.stream().mapToInt(CompleteNodeResponseDTO::getXpEarned).sum()).isEqualTo(20);
+        verify(xpEventService, times(1)).enqueue(USER_ID, XpSource.NODE_COMPLETED, nodeId, 20);
+
+        Map<String, Object> enrollment = enrollment();
+        assertThat(enrollment.get("nodes_completed")).isEqualTo(1);
+        assertThat(enrollment.get("xp_earned")).isEqualTo(20);
+    }
+
+    @Test
+    void concurrentCompletionsOfDifferentNodesReportTheirOwnProgress() throws Exception {
+        List<CompleteNodeResponseDTO> responses = completeConcurrently(nodeIds, 1);
+
+        // Each completion sees the count including the ones committed before it
+        assertThat(responses).extracting(CompleteNodeResponseDTO::getUpdatedProgress)
+                .containsExactlyInAnyOrder(33.33, 66.67, 100.0);
+        verify(xpEventService, times(3)).enqueue(eq(USER_ID), eq(XpSource.NODE_COMPLETED), anyLong(), anyInt());
+
+        Map<String, Object> enrollment = enrollment();
+        assertThat(enrollment.get("nodes_completed")).isEqualTo(3);
+        assertThat(enrollment.get("xp_earned")).isEqualTo(60);
+        assertThat(enrollment.get("status")).isEqualTo("COMPLETED");
+    }
+
+    /**
+     * Complete every node {@code callsPerNode} times at once, each call in its own transaction
+     */
+    private List<CompleteNodeResponseDTO> completeConcurrently(List<Long> nodes, int callsPerNode) throws Exception {
+        int calls = nodes.size() * callsPerNode;
+        ExecutorService executor = Executors.newFixedThreadPool(calls);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CompleteNodeResponseDTO>> results = new ArrayList<>();
+        try {
+            for (Long nodeId : nodes) {
+                for (int i = 0; i < callsPerNode; i++) {
+                    Callable<CompleteNodeResponseDTO> call = () -> {
+                        start.await();
+                        return skillTreeService.completeNode(treeId, nodeId, USER_ID);
+                    };
+                    results.add(executor.submit(call));
+                }
+            }
+            start.countDown();
+
+            List<CompleteNodeResponseDTO> responses = new ArrayList<>();
+            for (Future<CompleteNodeResponseDTO> result : results) {
+                responses.add(result.get(30, TimeUnit.SECONDS));
+            }
+            return responses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<String, Object> enrollment() {
+        return jdbcTemplate.queryForMap(
+                "SELECT nodes_completed, xp_earned, status FROM user_skill_trees WHERE user_id = ? AND tree_id = ?",
+                USER_ID, treeId);
+    }
+}
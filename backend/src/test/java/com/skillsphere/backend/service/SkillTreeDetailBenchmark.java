@@ -0,0 +1,153 @@
+package com.skillsphere.backend.service;
+
+import com.skillsphere.backend.catalog.SkillTreeSnapshot;
+import com.skillsphere.backend.dto.TreeNodeDTO;
+import com.skillsphere.backend.entity.SkillNodeEntity;
+import com.skillsphere.backend.entity.SkillTreeEntity;
+import com.skillsphere.backend.entity.UserNodeProgressEntity;
+import com.skillsphere.backend.progress.CompletionBitsetStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tree detail assembly once the rows are loaded: the single pass over tree-scoped
+ * progress rows against the per-node scans over every progress row of the user it replaced.
+ *
+ * Run main() from the IDE, or:
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main SkillTreeDetailBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SkillTreeDetailBenchmark {
+
+    private static final Long TREE_ID = 1L;
+
+    // Progress rows a power user has in other trees
+    private static final int OTHER_PROGRESS_ROWS = 2_000;
+
+    @Param({"10", "100", "1000"})
+    private int nodeCount;
+
+    private SkillTreeSnapshot tree;
+    private List<SkillNodeEntity> nodes;
+    private List<UserNodeProgressEntity> treeProgress;
+    private List<UserNodeProgressEntity> allProgress;
+
+    @Setup
+    public void setUp() {
+        SkillTreeEntity treeEntity = new SkillTreeEntity();
+        treeEntity.setTreeId(TREE_ID);
+
+        nodes = new ArrayList<>(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            SkillNodeEntity node = new SkillNodeEntity();
+            node.setNodeId(1_000L + i);
+            node.setTreeId(TREE_ID);
+            node.setTitle("Node " + i);
+            node.setOrderIndex(i);
+            node.setXpReward(10);
+            nodes.add(node);
+        }
+        tree = SkillTreeSnapshot.of(treeEntity, nodes);
+
+        // The first half of the tree is completed
+        treeProgress = new ArrayList<>();
+        for (int i = 0; i < nodeCount / 2; i++) {
+            treeProgress.add(progress(nodes.get(i).getNodeId()));
+        }
+
+        allProgress = new ArrayList<>();
+        for (int i = 0; i < OTHER_PROGRESS_ROWS; i++) {
+            allProgress.add(progress(1_000_000L + i));
+        }
+        allProgress.addAll(treeProgress);
+    }
+
+    @Benchmark
+    public List<TreeNodeDTO> singlePass() {
+        Map<Long, UserNodeProgressEntity> progressByNodeId = new HashMap<>();
+        for (UserNodeProgressEntity progress : treeProgress) {
+            progressByNodeId.put(progress.getNodeId(), progress);
+        }
+        BitSet completed = CompletionBitsetStore.toBitSet(tree, progressByNodeId.values());
+        return SkillTreeService.toNodeDTOs(tree, progressByNodeId, completed);
+    }
+
+    @Benchmark
+    public List<TreeNodeDTO> perNodeScans() {
+        List<TreeNodeDTO> nodeDTOs = new ArrayList<>(nodes.size());
+        for (SkillNodeEntity node : nodes) {
+            UserNodeProgressEntity progress = allProgress.stream()
+                    .filter(p -> p.getNodeId().equals(node.getNodeId()))
+                    .findFirst()
+                    .orElse(null);
+
+            nodeDTOs.add(TreeNodeDTO.builder()
+                    .nodeId(node.getNodeId())
+                    .title(node.getTitle())
+                    .orderIndex(node.getOrderIndex())
+                    .isCompleted(progress != null && progress.getCompleted())
+                    .isLocked(lockedByPreviousNode(node))
+                    .completedDate(progress != null ? progress.getCompletionDate() : null)
+                    .prerequisiteNodes(new ArrayList<>())
+                    .build());
+        }
+        return nodeDTOs;
+    }
+
+    /**
+     * The lock check getTreeDetail used to run per node
+     */
+    private boolean lockedByPreviousNode(SkillNodeEntity node) {
+        if (node.getOrderIndex() == 0) {
+            return false;
+        }
+        for (SkillNodeEntity prevNode : nodes) {
+            if (prevNode.getOrderIndex() == node.getOrderIndex() - 1) {
+                return allProgress.stream()
+                        .noneMatch(p -> p.getNodeId().equals(prevNode.getNodeId()) && p.getCompleted());
+            }
+        }
+        return false;
+    }
+
+    private static UserNodeProgressEntity progress(Long nodeId) {
+        UserNodeProgressEntity progress = new UserNodeProgressEntity();
+        progress.setUserId(7L);
+        progress.setNodeId(nodeId);
+        progress.setCompleted(true);
+        progress.setCompletionDate(LocalDateTime.of(2025, 1, 1, 12, 0));
+        return progress;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SkillTreeDetailBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
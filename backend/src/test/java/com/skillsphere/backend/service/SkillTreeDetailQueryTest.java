@@ -0,0 +1,134 @@
+package com.skillsphere.backend.service;
+
+import com.skillsphere.backend.catalog.SkillTreeCatalogCache;
+import com.skillsphere.backend.dto.SkillTreeDetailDTO;
+import com.skillsphere.backend.dto.TreeNodeDTO;
+import com.skillsphere.backend.mapper.SkillTreeMapper;
+import com.skillsphere.backend.progress.CompletionBitsetStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * getTreeDetail must not issue a query per node: once the tree is in the catalog cache,
+ * a detail request reads the enrollment and the tree's progress rows and nothing else.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tree-detail;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({SkillTreeService.class, SkillTreeCatalogCache.class, CompletionBitsetStore.class,
+        SkillTreeMapper.class, LevelCurve.class, SkillTreeDetailQueryTest.Metrics.class})
+class SkillTreeDetailQueryTest {
+
+    private static final long USER_ID = 7L;
+    private static final int NODE_COUNT = 6;
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockitoBean
+    private XpEventService xpEventService;
+
+    @Autowired
+    private SkillTreeService skillTreeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private long treeId;
+    private final List<Long> nodeIds = new ArrayList<>();
+
+    @BeforeEach
+    void insertTree() {
+        jdbcTemplate.update("INSERT INTO skill_trees (title, total_nodes) VALUES ('Tree', ?)", NODE_COUNT);
+        treeId = jdbcTemplate.queryForObject("SELECT MAX(tree_id) FROM skill_trees", Long.class);
+
+        // Linear tree (no parent links): each node needs the one before it
+        for (int i = 0; i < NODE_COUNT; i++) {
+            jdbcTemplate.update("INSERT INTO skill_nodes (tree_id, title, order_index, xp_reward) VALUES (?, ?, ?, 10)",
+                    treeId, "Node " + i, i);
+            nodeIds.add(jdbcTemplate.queryForObject("SELECT MAX(node_id) FROM skill_nodes", Long.class));
+        }
+
+        jdbcTemplate.update("INSERT INTO user_skill_trees (user_id, tree_id, enrollment_date, progress_percentage, "
+                        + "nodes_completed, status, xp_earned, version) VALUES (?, ?, ?, 33.33, 2, 'ACTIVE', 20, 0)",
+                USER_ID, treeId, Timestamp.valueOf(T0));
+
+        progress(nodeIds.get(0), true);
+        progress(nodeIds.get(1), true);
+        progress(nodeIds.get(2), false);
+    }
+
+    @Test
+    void warmDetailReadsEnrollmentAndProgressOnly() {
+        // First request loads the tree into the catalog cache
+        skillTreeService.getTreeDetail(treeId, USER_ID);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        SkillTreeDetailDTO detail = skillTreeService.getTreeDetail(treeId, USER_ID);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(detail.getNodes()).hasSize(NODE_COUNT);
+    }
+
+    @Test
+    void coldDetailLoadsTheTreeAndNodesInOneQueryEach() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        skillTreeService.getTreeDetail(treeId, USER_ID);
+
+        // Tree, its nodes, enrollment, progress rows - independent of the node count
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Test
+    void detailMarksCompletedAndLockedNodes() {
+        SkillTreeDetailDTO detail = skillTreeService.getTreeDetail(treeId, USER_ID);
+
+        assertThat(detail.getNodes()).extracting(TreeNodeDTO::getIsCompleted)
+                .containsExactly(true, true, false, false, false, false);
+        assertThat(detail.getNodes()).extracting(TreeNodeDTO::getIsLocked)
+                .containsExactly(false, false, false, true, true, true);
+        assertThat(detail.getNodes().get(0).getCompletedDate()).isEqualTo(T0);
+    }
+
+    private void progress(Long nodeId, boolean completed) {
+        jdbcTemplate.update("INSERT INTO user_node_progress (user_id, node_id, completed, completion_date, time_spent) "
+                        + "VALUES (?, ?, ?, ?, 0)",
+                USER_ID, nodeId, completed, completed ? Timestamp.valueOf(T0) : null);
+    }
+}
@@ -0,0 +1,122 @@
+package com.skillsphere.backend.service;
+
+import com.skillsphere.backend.catalog.SkillTreeCatalogCache;
+import com.skillsphere.backend.catalog.SkillTreeSnapshot;
+import com.skillsphere.backend.dto.CompleteNodeResponseDTO;
+import com.skillsphere.backend.entity.SkillNodeEntity;
+import com.skillsphere.backend.entity.SkillTreeEntity;
+import com.skillsphere.backend.entity.UserSkillTreeEntity;
+import com.skillsphere.backend.entity.XpEventEntity.XpSource;
+import com.skillsphere.backend.mapper.SkillTreeMapper;
+import com.skillsphere.backend.progress.CompletionBitsetStore;
+import com.skillsphere.backend.repo.ProfileXpSnapshot;
+import com.skillsphere.backend.repo.SkillNodeRepo;
+import com.skillsphere.backend.repo.SkillTreeRepo;
+import com.skillsphere.backend.repo.UserNodeProgressRepo;
+import com.skillsphere.backend.repo.UserProfileRepo;
+import com.skillsphere.backend.repo.UserRepo;
+import com.skillsphere.backend.repo.UserSkillTreeRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SkillTreeServiceTest {
+
+    private static final Long USER_ID = 7L;
+    private static final Long TREE_ID = 1L;
+
+    @Mock private SkillTreeRepo skillTreeRepo;
+    @Mock private SkillNodeRepo skillNodeRepo;
+    @Mock private UserSkillTreeRepo userSkillTreeRepo;
+    @Mock private UserNodeProgressRepo userNodeProgressRepo;
+    @Mock private UserRepo userRepo;
+    @Mock private UserProfileRepo userProfileRepo;
+    @Mock private SkillTreeMapper skillTreeMapper;
+    @Mock private SkillTreeCatalogCache catalogCache;
+    @Mock private CompletionBitsetStore completionStore;
+    @Spy private LevelCurve levelCurve = new LevelCurve();
+    @Mock private XpEventService xpEventService;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private SkillTreeService skillTreeService;
+
+    // Stands in for the row lock in markCompleted: only the first call flips the row
+    private final AtomicBoolean nodeCompleted = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() {
+        // Linear tree: 11 -> 12 -> 13
+        SkillTreeSnapshot tree = SkillTreeSnapshot.of(treeEntity(), List.of(
+                node(11L, 0, 10), node(12L, 1, 20), node(13L, 2, 30)));
+        when(catalogCache.getTree(TREE_ID)).thenReturn(Optional.of(tree));
+
+        UserSkillTreeEntity enrollment = new UserSkillTreeEntity();
+        enrollment.setUserId(USER_ID);
+        enrollment.setTreeId(TREE_ID);
+        enrollment.setNodesCompleted(1);
+        enrollment.setProgressPercentage(new BigDecimal("33.33"));
+        when(userSkillTreeRepo.findByUserIdAndTreeId(USER_ID, TREE_ID)).thenReturn(Optional.of(enrollment));
+
+        BitSet firstNodeDone = new BitSet();
+        firstNodeDone.set(0);
+        when(completionStore.getCompleted(any(), any())).thenAnswer(invocation -> firstNodeDone.clone());
+
+        when(userNodeProgressRepo.markCompleted(eq(USER_ID), eq(12L), any()))
+                .thenAnswer(invocation -> nodeCompleted.compareAndSet(false, true) ? 1 : 0);
+
+        // Level 1 with 90 XP; the 20 pending XP include the completion being made
+        when(userProfileRepo.findXpSnapshot(USER_ID)).thenReturn(Optional.of(new ProfileXpSnapshot(1, 90, 20L)));
+    }
+
+    @Test
+    void completionReportsProgressLevelAndUnlockedNodes() {
+        when(userSkillTreeRepo.findProgressPercentage(USER_ID, TREE_ID)).thenReturn(Optional.of(new BigDecimal("66.67")));
+
+        CompleteNodeResponseDTO response = skillTreeService.completeNode(TREE_ID, 12L, USER_ID);
+
+        assertThat(response.getXpEarned()).isEqualTo(20);
+        assertThat(response.getUpdatedProgress()).isEqualTo(66.67);
+        assertThat(response.getNewLevel()).isEqualTo(2);
+        assertThat(response.getLeveledUp()).isTrue();
+        assertThat(response.getUnlockedNodes()).containsExactly(13L);
+        verify(xpEventService).enqueue(USER_ID, XpSource.NODE_COMPLETED, 12L, 20);
+    }
+
+    private static SkillTreeEntity treeEntity() {
+        SkillTreeEntity tree = new SkillTreeEntity();
+        tree.setTreeId(TREE_ID);
+        tree.setTitle("Tree");
+        tree.setTotalNodes(3);
+        return tree;
+    }
+
+    private static SkillNodeEntity node(Long nodeId, int orderIndex, int xpReward) {
+        SkillNodeEntity node = new SkillNodeEntity();
+        node.setNodeId(nodeId);
+        node.setTreeId(TREE_ID);
+        node.setTitle("Node " + nodeId);
+        node.setOrderIndex(orderIndex);
+        node.setXpReward(xpReward);
+        node.setIsLocked(false);
+        return node;
+    }
+}
@@ -0,0 +1,71 @@
+package com.skillsphere.backend.service;
+
+import com.skillsphere.backend.entity.UserEntity;
+import com.skillsphere.backend.repo.UserRepo;
+import com.skillsphere.backend.service.UserDirectoryService.UserSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserDirectoryServiceTest {
+
+    @Mock private UserRepo userRepo;
+
+    private UserDirectoryService userDirectory;
+
+    @BeforeEach
+    void setUp() {
+        userDirectory = new UserDirectoryService(userRepo, new SimpleMeterRegistry(), 100, 30);
+    }
+
+    @Test
+    void nullIdGetsAPlaceholderWithoutAQuery() {
+        assertThat(userDirectory.get(null).username()).isEqualTo("Unknown user");
+        assertThat(userDirectory.usernameOf(null)).isEqualTo("Unknown user");
+        verify(userRepo, never()).findAllById(any());
+    }
+
+    @Test
+    void batchSkipsNullsAndFallsBackForMissingUsers() {
+        when(userRepo.findAllById(Set.of(1L, 2L))).thenReturn(List.of(user(1L, "ada")));
+
+        Map<Long, UserSummary> users = userDirectory.getAll(Arrays.asList(1L, null, 2L));
+
+        assertThat(UserSummary.of(users, 1L).username()).isEqualTo("ada");
+        assertThat(UserSummary.of(users, 2L).username()).isEqualTo("User2");
+        assertThat(UserSummary.of(users, null).username()).isEqualTo("Unknown user");
+        assertThat(UserSummary.of(Map.of(), 3L).username()).isEqualTo("User3");
+    }
+
+    @Test
+    void foundUsersAreCached() {
+        when(userRepo.findAllById(Set.of(1L))).thenReturn(List.of(user(1L, "ada")));
+
+        assertThat(userDirectory.usernameOf(1L)).isEqualTo("ada");
+        assertThat(userDirectory.usernameOf(1L)).isEqualTo("ada");
+        verify(userRepo, times(1)).findAllById(any());
+    }
+
+    private static UserEntity user(Long userId, String username) {
+        UserEntity user = new UserEntity();
+        user.setUserId(userId);
+        user.setUsername(username);
+        return user;
+    }
+}
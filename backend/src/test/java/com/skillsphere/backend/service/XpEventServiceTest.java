@@ -0,0 +1,78 @@
+package com.skillsphere.backend.service;
+
+import com.skillsphere.backend.entity.UserProfileEntity;
+import com.skillsphere.backend.entity.XpEventEntity;
+import com.skillsphere.backend.repo.UserProfileRepo;
+import com.skillsphere.backend.repo.XpEventRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class XpEventServiceTest {
+
+    private static final Long USER_WITH_PROFILE = 7L;
+    private static final Long USER_WITHOUT_PROFILE = 8L;
+
+    @Mock private XpEventRepo xpEventRepo;
+    @Mock private UserProfileRepo userProfileRepo;
+    @Mock private UserProfileService userProfileService;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    private XpEventService xpEventService;
+
+    @BeforeEach
+    void setUp() {
+        xpEventService = new XpEventService(xpEventRepo, userProfileRepo, userProfileService, transactionTemplate);
+        ReflectionTestUtils.setField(xpEventService, "batchSize", 500);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void xpOfUsersWithoutAProfileStaysPending() {
+        UserProfileEntity profile = new UserProfileEntity();
+        profile.setUserId(USER_WITH_PROFILE);
+        when(xpEventRepo.claimPending(500)).thenReturn(List.of(
+                event(1L, USER_WITH_PROFILE, 10),
+                event(2L, USER_WITHOUT_PROFILE, 20),
+                event(3L, USER_WITH_PROFILE, 5)));
+        when(userProfileRepo.findByUserIdIn(any())).thenReturn(List.of(profile));
+
+        xpEventService.processPending();
+
+        verify(userProfileService).applyXp(profile, 15);
+        verify(xpEventRepo).markProcessed(eq(List.of(1L, 3L)), any());
+    }
+
+    @Test
+    void nothingIsMarkedWhenNoProfileWasFound() {
+        when(xpEventRepo.claimPending(500)).thenReturn(List.of(event(2L, USER_WITHOUT_PROFILE, 20)));
+        when(userProfileRepo.findByUserIdIn(any())).thenReturn(List.of());
+
+        xpEventService.processPending();
+
+        verify(xpEventRepo, never()).markProcessed(any(), any());
+    }
+
+    private static XpEventEntity event(Long eventId, Long userId, int xpAmount) {
+        XpEventEntity event = new XpEventEntity();
+        event.setEventId(eventId);
+        event.setUserId(userId);
+        event.setXpAmount(xpAmount);
+        return event;
+    }
+}
@@ -0,0 +1,69 @@
+package com.skillsphere.backend.studyroom.controller;
+
+import com.skillsphere.backend.studyroom.dto.RoomMessageDTO;
+import com.skillsphere.backend.studyroom.service.StudyRoomService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class StudyRoomControllerTest {
+
+    private static final Long ROOM_ID = 5L;
+
+    @Mock private StudyRoomService studyRoomService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new StudyRoomController(studyRoomService)).build();
+        when(studyRoomService.getLatestMessageId(ROOM_ID)).thenReturn(42L);
+    }
+
+    @Test
+    void matchingETagGets304WithoutLoadingMessages() throws Exception {
+        mockMvc.perform(get("/api/study-rooms/{id}/messages", ROOM_ID)
+                        .param("afterId", "40")
+                        .header("X-User-Id", "7")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"5-42-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5-42-7\""))
+                .andExpect(header().string(HttpHeaders.VARY, "X-User-Id"))
+                .andExpect(content().string(""));
+
+        verify(studyRoomService, never()).getMessagesAfter(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void anotherViewersETagDoesNotMatch() throws Exception {
+        when(studyRoomService.getMessagesAfter(ROOM_ID, 40L, 8L)).thenReturn(List.of(new RoomMessageDTO()));
+
+        String cacheControl = mockMvc.perform(get("/api/study-rooms/{id}/messages", ROOM_ID)
+                        .param("afterId", "40")
+                        .header("X-User-Id", "8")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"5-42-7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5-42-8\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.CACHE_CONTROL);
+
+        assertThat(cacheControl).contains("private");
+    }
+}
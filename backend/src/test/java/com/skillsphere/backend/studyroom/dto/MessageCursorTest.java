@@ -0,0 +1,59 @@
+package com.skillsphere.backend.studyroom.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MessageCursorTest {
+
+    @Test
+    void roundTripsWithMicrosecondPrecision() {
+        MessageCursor cursor = new MessageCursor(LocalDateTime.of(2025, 3, 4, 5, 6, 7, 123_456_000), 42L);
+
+        assertThat(MessageCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void roundTripsWholeSecondsAndLargeIds() {
+        MessageCursor cursor = new MessageCursor(LocalDateTime.of(2025, 3, 4, 5, 6), Long.MAX_VALUE);
+
+        assertThat(MessageCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void encodesAsUrlSafeTextWithoutPadding() {
+        for (long id = 1; id < 200; id++) {
+            String encoded = new MessageCursor(LocalDateTime.of(2025, 1, 1, 0, 0, 0, (int) id * 1000), id).encode();
+            assertThat(encoded).matches("[A-Za-z0-9_-]+");
+        }
+    }
+
+    @Test
+    void buildsFromAMessage() {
+        RoomMessageDTO message = RoomMessageDTO.builder()
+                .id(7L)
+                .createdAt(LocalDateTime.of(2025, 1, 1, 12, 0))
+                .build();
+
+        assertThat(MessageCursor.of(message)).isEqualTo(new MessageCursor(message.getCreatedAt(), 7L));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        String notBase64 = "***";
+        String noSeparator = Base64.getUrlEncoder().encodeToString("2025-01-01T00:00".getBytes(StandardCharsets.UTF_8));
+        String badDate = Base64.getUrlEncoder().encodeToString("yesterday|5".getBytes(StandardCharsets.UTF_8));
+        String badId = Base64.getUrlEncoder().encodeToString("2025-01-01T00:00|x".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : new String[]{notBase64, noSeparator, badDate, badId, ""}) {
+            assertThatThrownBy(() -> MessageCursor.decode(cursor))
+                    .as(cursor)
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
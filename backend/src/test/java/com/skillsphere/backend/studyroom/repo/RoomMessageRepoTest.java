@@ -0,0 +1,89 @@
+package com.skillsphere.backend.studyroom.repo;
+
+import com.skillsphere.backend.studyroom.entity.RoomMessageEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:room-messages;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=true"
+})
+class RoomMessageRepoTest {
+
+    private static final long ROOM_ID = 1L;
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 12, 0);
+    private static final LocalDateTime T1 = T0.plusSeconds(1);
+    private static final LocalDateTime T2 = T0.plusSeconds(2);
+
+    @Autowired
+    private RoomMessageRepo roomMessageRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void insertMessages() {
+        // Ids 2..5 share one timestamp, so only the id separates them
+        insert(1, T0);
+        insert(2, T1);
+        insert(3, T1);
+        insert(4, T1);
+        insert(5, T1);
+        insert(6, T2);
+        // Other rooms and deleted messages never show up
+        insert(7, T1, 2L, false);
+        insert(8, T1, ROOM_ID, true);
+    }
+
+    @Test
+    void pageBeforeBreaksCreatedAtTiesById() {
+        assertThat(ids(roomMessageRepo.findPageBefore(ROOM_ID, T1, 4L, 10))).containsExactly(3L, 2L, 1L);
+        assertThat(ids(roomMessageRepo.findPageBefore(ROOM_ID, T1, 4L, 1))).containsExactly(3L);
+        assertThat(ids(roomMessageRepo.findPageBefore(ROOM_ID, T1, 2L, 10))).containsExactly(1L);
+    }
+
+    @Test
+    void pageAfterBreaksCreatedAtTiesById() {
+        assertThat(ids(roomMessageRepo.findPageAfter(ROOM_ID, T1, 3L, 10))).containsExactly(4L, 5L, 6L);
+        assertThat(ids(roomMessageRepo.findPageAfter(ROOM_ID, T1, 3L, 1))).containsExactly(4L);
+        assertThat(ids(roomMessageRepo.findPageAfter(ROOM_ID, T1, 5L, 10))).containsExactly(6L);
+    }
+
+    @Test
+    void walkingBackwardVisitsEveryMessageOnce() {
+        List<RoomMessageEntity> page = roomMessageRepo.findLatestPage(ROOM_ID, 2);
+        List<Long> seen = new ArrayList<>(ids(page));
+        while (!page.isEmpty()) {
+            RoomMessageEntity oldest = page.get(page.size() - 1);
+            page = roomMessageRepo.findPageBefore(ROOM_ID, oldest.getCreatedAt(), oldest.getId(), 2);
+            seen.addAll(ids(page));
+        }
+        assertThat(seen).containsExactly(6L, 5L, 4L, 3L, 2L, 1L);
+    }
+
+    private void insert(long id, LocalDateTime createdAt) {
+        insert(id, createdAt, ROOM_ID, false);
+    }
+
+    private void insert(long id, LocalDateTime createdAt, long roomId, boolean deleted) {
+        jdbcTemplate.update("INSERT INTO room_messages (id, room_id, user_id, message, message_type, is_deleted, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                id, roomId, 10L, "message " + id, "TEXT", deleted, Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt));
+    }
+
+    private static List<Long> ids(List<RoomMessageEntity> messages) {
+        return messages.stream().map(RoomMessageEntity::getId).toList();
+    }
+}
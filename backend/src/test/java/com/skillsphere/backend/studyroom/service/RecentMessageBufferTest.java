@@ -0,0 +1,170 @@
+package com.skillsphere.backend.studyroom.service;
+
+import com.skillsphere.backend.studyroom.dto.RoomMessageDTO;
+import com.skillsphere.backend.studyroom.entity.RoomMessageEntity;
+import com.skillsphere.backend.studyroom.mapper.RoomMessageMapper;
+import com.skillsphere.backend.studyroom.repo.RoomMessageRepo;
+import com.skillsphere.backend.studyroom.repo.StudyRoomRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RecentMessageBufferTest {
+
+    private static final Long ROOM_ID = 5L;
+    private static final int CAPACITY = 3;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Mock private StudyRoomRepo studyRoomRepo;
+    @Mock private RoomMessageRepo roomMessageRepo;
+    @Mock private RoomMessageMapper roomMessageMapper;
+
+    private RecentMessageBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(studyRoomRepo.existsById(ROOM_ID)).thenReturn(true);
+        buffer = new RecentMessageBuffer(studyRoomRepo, roomMessageRepo, roomMessageMapper, new SimpleMeterRegistry(),
+                CAPACITY, 10, 30);
+    }
+
+    @Test
+    void warmsOnceAndReturnsNewestFirst() {
+        stored(3L, 1L, 2L);
+
+        assertThat(ids(buffer.recent(ROOM_ID, 10))).containsExactly(3L, 2L, 1L);
+        assertThat(ids(buffer.recent(ROOM_ID, 2))).containsExactly(3L, 2L);
+        verify(roomMessageRepo, times(1)).findRecentMessages(ROOM_ID, CAPACITY);
+    }
+
+    @Test
+    void appendKeepsIdOrderAndTrimsToCapacity() {
+        stored(1L);
+        buffer.recent(ROOM_ID, 10);
+
+        buffer.append(message(3L));
+        buffer.append(message(2L));
+        assertThat(ids(buffer.recent(ROOM_ID, 10))).containsExactly(3L, 2L, 1L);
+
+        // Full: the oldest message drops out
+        buffer.append(message(4L));
+        assertThat(ids(buffer.recent(ROOM_ID, 10))).containsExactly(4L, 3L, 2L);
+    }
+
+    @Test
+    void appendIgnoresDuplicatesAndRoomsNotBuffered() {
+        stored(1L);
+        buffer.recent(ROOM_ID, 10);
+
+        buffer.append(message(1L));
+        assertThat(ids(buffer.recent(ROOM_ID, 10))).containsExactly(1L);
+
+        buffer.append(message(9L).toBuilder().roomId(ROOM_ID + 1).build());
+        verify(roomMessageRepo, never()).findRecentMessages(eq(ROOM_ID + 1), eq(CAPACITY));
+    }
+
+    @Test
+    void completeRoomCoversEveryPosition() {
+        stored(1L, 2L);
+
+        assertThat(buffer.after(ROOM_ID, 0L)).hasValueSatisfying(m -> assertThat(ids(m)).containsExactly(1L, 2L));
+        assertThat(buffer.after(ROOM_ID, 1L)).hasValueSatisfying(m -> assertThat(ids(m)).containsExactly(2L));
+        assertThat(buffer.since(ROOM_ID, START.minusDays(1)))
+                .hasValueSatisfying(m -> assertThat(ids(m)).containsExactly(1L, 2L));
+    }
+
+    @Test
+    void fullRoomOnlyCoversWhatItHolds() {
+        stored(4L, 5L, 6L);
+
+        assertThat(buffer.after(ROOM_ID, 3L)).isEmpty();
+        assertThat(buffer.after(ROOM_ID, 4L)).hasValueSatisfying(m -> assertThat(ids(m)).containsExactly(5L, 6L));
+        assertThat(buffer.since(ROOM_ID, START)).isEmpty();
+        assertThat(buffer.since(ROOM_ID, createdAt(4L)))
+                .hasValueSatisfying(m -> assertThat(ids(m)).containsExactly(5L, 6L));
+    }
+
+    @Test
+    void removeFromFullRoomWarmsAgain() {
+        stored(4L, 5L, 6L);
+        buffer.recent(ROOM_ID, 10);
+
+        buffer.remove(ROOM_ID, 5L);
+        buffer.recent(ROOM_ID, 10);
+
+        verify(roomMessageRepo, times(2)).findRecentMessages(ROOM_ID, CAPACITY);
+    }
+
+    @Test
+    void removeFromCompleteRoomKeepsTheRest() {
+        stored(1L, 2L);
+        buffer.recent(ROOM_ID, 10);
+
+        buffer.remove(ROOM_ID, 1L);
+
+        assertThat(ids(buffer.recent(ROOM_ID, 10))).containsExactly(2L);
+        verify(roomMessageRepo, times(1)).findRecentMessages(ROOM_ID, CAPACITY);
+    }
+
+    @Test
+    void unknownRoomIsRejectedWithoutWarmingOrBuffering() {
+        Long unknownRoomId = 99L;
+        when(studyRoomRepo.existsById(unknownRoomId)).thenReturn(false);
+
+        assertThatThrownBy(() -> buffer.recent(unknownRoomId, 10)).hasMessageContaining("Room not found");
+        assertThatThrownBy(() -> buffer.since(unknownRoomId, START)).hasMessageContaining("Room not found");
+
+        verify(roomMessageRepo, never()).findRecentMessages(eq(unknownRoomId), anyInt());
+    }
+
+    /**
+     * Rows returned by the warm-up query, in whatever order the database gives them
+     */
+    private void stored(Long... ids) {
+        List<RoomMessageEntity> entities = new ArrayList<>();
+        for (Long id : ids) {
+            entities.add(RoomMessageEntity.builder().id(id).roomId(ROOM_ID).createdAt(createdAt(id)).build());
+        }
+        when(roomMessageRepo.findRecentMessages(ROOM_ID, CAPACITY)).thenReturn(entities);
+        when(roomMessageMapper.toDTOList(anyList(), isNull(), eq(false))).thenAnswer(invocation -> {
+            List<RoomMessageEntity> rows = invocation.getArgument(0);
+            return rows.stream().map(row -> message(row.getId())).toList();
+        });
+    }
+
+    private static RoomMessageDTO message(Long id) {
+        return RoomMessageDTO.builder()
+                .id(id)
+                .roomId(ROOM_ID)
+                .createdAt(createdAt(id))
+                .build();
+    }
+
+    private static LocalDateTime createdAt(Long id) {
+        return START.plusSeconds(id);
+    }
+
+    private static List<Long> ids(List<RoomMessageDTO> messages) {
+        return messages.stream().map(RoomMessageDTO::getId).toList();
+    }
+}
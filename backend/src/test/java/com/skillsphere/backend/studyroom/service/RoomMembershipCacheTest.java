@@ -0,0 +1,66 @@
+package com.skillsphere.backend.studyroom.service;
+
+import com.skillsphere.backend.studyroom.entity.StudyRoomEntity;
+import com.skillsphere.backend.studyroom.repo.RoomMemberRepo;
+import com.skillsphere.backend.studyroom.repo.StudyRoomRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RoomMembershipCacheTest {
+
+    private static final Long ROOM_ID = 5L;
+    private static final Long MEMBER = 10L;
+    private static final Long JOINER = 11L;
+
+    @Mock private StudyRoomRepo studyRoomRepo;
+    @Mock private RoomMemberRepo roomMemberRepo;
+
+    private RoomMembershipCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RoomMembershipCache(studyRoomRepo, roomMemberRepo, new SimpleMeterRegistry(), 10, 10);
+        when(studyRoomRepo.findById(ROOM_ID)).thenReturn(Optional.of(StudyRoomEntity.builder().id(ROOM_ID).build()));
+    }
+
+    @Test
+    void loadsOnceUntilInvalidated() {
+        when(roomMemberRepo.findActiveUserIdsByRoomId(ROOM_ID)).thenReturn(List.of(MEMBER));
+
+        assertThat(cache.canPost(ROOM_ID, MEMBER)).isTrue();
+        assertThat(cache.canPost(ROOM_ID, JOINER)).isFalse();
+        verify(roomMemberRepo, times(1)).findActiveUserIdsByRoomId(ROOM_ID);
+
+        cache.onMembershipChanged(new RoomMembershipChangedEvent(ROOM_ID));
+        cache.canPost(ROOM_ID, MEMBER);
+        verify(roomMemberRepo, times(2)).findActiveUserIdsByRoomId(ROOM_ID);
+    }
+
+    @Test
+    void loadThatRacedWithAnInvalidationIsNotStored() {
+        // The join commits and invalidates while the first load is still reading the old members
+        when(roomMemberRepo.findActiveUserIdsByRoomId(ROOM_ID))
+                .thenAnswer(invocation -> {
+                    cache.onMembershipChanged(new RoomMembershipChangedEvent(ROOM_ID));
+                    return List.of(MEMBER);
+                })
+                .thenReturn(List.of(MEMBER, JOINER));
+
+        assertThat(cache.canPost(ROOM_ID, JOINER)).isFalse();
+        assertThat(cache.canPost(ROOM_ID, JOINER)).isTrue();
+        verify(roomMemberRepo, times(2)).findActiveUserIdsByRoomId(ROOM_ID);
+    }
+}
@@ -0,0 +1,110 @@
+package com.skillsphere.backend.studyroom.service;
+
+import com.skillsphere.backend.studyroom.dto.RoomMessageDTO;
+import com.skillsphere.backend.studyroom.mapper.RoomMessageMapper;
+import com.skillsphere.backend.studyroom.repo.RoomMessageRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RoomMessageWaitersTest {
+
+    private static final Long ROOM_ID = 5L;
+
+    @Mock private RecentMessageBuffer recentMessageBuffer;
+    @Mock private RoomMessageRepo roomMessageRepo;
+    @Mock private RoomMessageMapper roomMessageMapper;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RoomMessageWaiters waiters;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Deliveries run on the calling thread, so each wake is finished when it returns
+        waiters = new RoomMessageWaiters(recentMessageBuffer, roomMessageRepo, roomMessageMapper, meterRegistry,
+                Runnable::run);
+    }
+
+    @Test
+    void deliversNewerMessagesAndReparksTheRest() {
+        List<List<RoomMessageDTO>> delivered = new ArrayList<>();
+        RoomMessageWaiters.Waiter behind = waiter(1L, delivered, new AtomicBoolean(true));
+        RoomMessageWaiters.Waiter caughtUp = waiter(2L, delivered, new AtomicBoolean(true));
+        waiters.await(ROOM_ID, behind);
+        waiters.await(ROOM_ID, caughtUp);
+        when(recentMessageBuffer.after(ROOM_ID, 1L)).thenReturn(Optional.of(List.of(message(2L))));
+
+        waiters.wake(ROOM_ID);
+
+        assertThat(delivered).hasSize(1);
+        assertThat(delivered.get(0)).extracting(RoomMessageDTO::getId).containsExactly(2L);
+        assertThat(waiting()).isEqualTo(1);
+    }
+
+    @Test
+    void timeoutDuringDeliveryDoesNotLeaveTheWaiterParked() {
+        AtomicBoolean alive = new AtomicBoolean(true);
+        List<List<RoomMessageDTO>> delivered = new ArrayList<>();
+        RoomMessageWaiters.Waiter waiter = waiter(3L, delivered, alive);
+        waiters.await(ROOM_ID, waiter);
+
+        // The request times out while the wake-up reads messages; its onCompletion cancel
+        // finds nothing because the wake-up already took the waiter out of the room
+        when(recentMessageBuffer.after(ROOM_ID, 3L)).thenAnswer(invocation -> {
+            alive.set(false);
+            waiters.cancel(ROOM_ID, waiter);
+            return Optional.of(List.of());
+        });
+
+        waiters.wake(ROOM_ID);
+
+        assertThat(waiting()).isZero();
+        // Nothing is parked any more, so a later message does not read anything for it
+        waiters.wake(ROOM_ID);
+        verify(recentMessageBuffer, times(1)).after(ROOM_ID, 3L);
+        assertThat(delivered).isEmpty();
+    }
+
+    @Test
+    void timeoutJustAfterReparkingIsCleanedUp() {
+        AtomicBoolean alive = new AtomicBoolean(true);
+        // First check passes; the request expires before the check that follows re-parking
+        RoomMessageWaiters.Waiter waiter = new RoomMessageWaiters.Waiter(3L, messages -> { }, e -> { },
+                () -> alive.getAndSet(false));
+        waiters.await(ROOM_ID, waiter);
+        when(recentMessageBuffer.after(ROOM_ID, 3L)).thenReturn(Optional.of(List.of()));
+
+        waiters.wake(ROOM_ID);
+
+        assertThat(waiting()).isZero();
+        waiters.wake(ROOM_ID);
+        verify(recentMessageBuffer, times(1)).after(ROOM_ID, 3L);
+    }
+
+    private double waiting() {
+        return meterRegistry.get("studyroom.message.waiters").gauge().value();
+    }
+
+    private static RoomMessageWaiters.Waiter waiter(long afterId, List<List<RoomMessageDTO>> delivered, AtomicBoolean alive) {
+        return new RoomMessageWaiters.Waiter(afterId, delivered::add, e -> { }, alive::get);
+    }
+
+    private static RoomMessageDTO message(Long id) {
+        return RoomMessageDTO.builder().id(id).roomId(ROOM_ID).build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.skillsphere.backend.studyroom.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.security.Principal;
+import java.util.HashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RoomSessionRegistryTest {
+
+    private static final Long ROOM_ID = 5L;
+    private static final Long USER_ID = 10L;
+    private static final String SESSION_ID = "s1";
+    private static final Principal PRINCIPAL = () -> "ada";
+
+    @Mock private StudyTimeTracker studyTimeTracker;
+    @Mock private RoomMembershipCache roomMembershipCache;
+    @Mock private SessionUserResolver sessionUserResolver;
+    @Mock private RoomBroadcaster roomBroadcaster;
+
+    private RoomSessionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new RoomSessionRegistry(studyTimeTracker, roomMembershipCache, sessionUserResolver,
+                roomBroadcaster, new SimpleMeterRegistry());
+        when(sessionUserResolver.resolve(any(), any())).thenReturn(USER_ID);
+        registry.onConnect(new SessionConnectEvent(this, message(SimpMessageType.CONNECT, null), PRINCIPAL));
+    }
+
+    @Test
+    void subscribingBeforeJoiningStartsStudyTimeOnTheJoin() {
+        // The room page subscribes on load; the user presses Join afterwards
+        when(roomMembershipCache.canPost(ROOM_ID, USER_ID)).thenReturn(false, true);
+
+        subscribe();
+        verify(studyTimeTracker, never()).connected(anyLong(), anyLong());
+        assertThat(registry.onlineUsers(ROOM_ID)).containsExactly(USER_ID);
+
+        registry.onMembershipChanged(new RoomMembershipChangedEvent(ROOM_ID));
+        verify(studyTimeTracker).connected(ROOM_ID, USER_ID);
+
+        // Another member joining does not count the same subscription twice
+        registry.onMembershipChanged(new RoomMembershipChangedEvent(ROOM_ID));
+        verify(studyTimeTracker, times(1)).connected(ROOM_ID, USER_ID);
+    }
+
+    @Test
+    void subscribeJoinLeaveDisconnectEndsStudyTimeOnce() {
+        when(roomMembershipCache.canPost(ROOM_ID, USER_ID)).thenReturn(false, true, false);
+
+        subscribe();
+        registry.onMembershipChanged(new RoomMembershipChangedEvent(ROOM_ID));  // joined
+        registry.onMembershipChanged(new RoomMembershipChangedEvent(ROOM_ID));  // left
+
+        verify(studyTimeTracker, times(1)).connected(ROOM_ID, USER_ID);
+        verify(studyTimeTracker, times(1)).disconnected(ROOM_ID, USER_ID);
+        // Still watching the room after leaving it
+        assertThat(registry.onlineUsers(ROOM_ID)).containsExactly(USER_ID);
+
+        registry.onDisconnect(new SessionDisconnectEvent(this, message(SimpMessageType.DISCONNECT, null),
+                SESSION_ID, CloseStatus.NORMAL, PRINCIPAL));
+
+        // The watching subscription does not end the study time a second time
+        verify(studyTimeTracker, times(1)).disconnected(ROOM_ID, USER_ID);
+        assertThat(registry.onlineUsers(ROOM_ID)).isEmpty();
+    }
+
+    @Test
+    void subscribeThatRacedWithAJoinIsRechecked() {
+        // The join commits while the subscribe is still reading the old members
+        when(roomMembershipCache.canPost(ROOM_ID, USER_ID))
+                .thenAnswer(invocation -> {
+                    registry.onMembershipChanged(new RoomMembershipChangedEvent(ROOM_ID));
+                    return false;
+                })
+                .thenReturn(true);
+
+        subscribe();
+
+        verify(studyTimeTracker, times(1)).connected(ROOM_ID, USER_ID);
+    }
+
+    private void subscribe() {
+        registry.onSubscribe(new SessionSubscribeEvent(this,
+                message(SimpMessageType.SUBSCRIBE, "/topic/room/" + ROOM_ID), PRINCIPAL));
+    }
+
+    private static Message<byte[]> message(SimpMessageType type, String destination) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(type);
+        headers.setSessionId(SESSION_ID);
+        headers.setSessionAttributes(new HashMap<>());
+        if (destination != null) {
+            headers.setSubscriptionId("sub-0");
+            headers.setDestination(destination);
+        }
+        return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+    }
+}